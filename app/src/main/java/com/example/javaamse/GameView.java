@@ -0,0 +1,163 @@
+package com.example.javaamse;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.util.AttributeSet;
+import android.util.TypedValue;
+import android.view.View;
+
+/**
+ * Draws the whole game scene from the latest snapshot in one pass.
+ */
+public class GameView extends View {
+
+    private final Paint spritePaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private final Paint popupPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF destination = new RectF();
+
+    private SpriteAtlas atlas;
+    private float shipSize;
+    private float tokenSize;
+
+    private GameSnapshot snapshot;
+
+    // "+value" formatted in place, so a popup allocates no String
+    private final char[] popupText = new char[12];
+
+    public GameView(Context context) {
+        super(context);
+    }
+
+    public GameView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    public void setup(int shipSize, int tokenSize) {
+        this.shipSize = shipSize;
+        this.tokenSize = tokenSize;
+
+        // All sprites decoded once, at the size they are drawn at
+        atlas = new SpriteAtlas(getResources(), shipSize, tokenSize, GameWorld.ASTEROID_SIZE);
+
+        popupPaint.setColor(Color.YELLOW);
+        popupPaint.setTextSize(TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_SP, 20, getResources().getDisplayMetrics()));
+        popupPaint.setFakeBoldText(true);
+    }
+
+    // Called once per frame with the snapshot acquired for that frame
+    public void setSnapshot(GameSnapshot snapshot) {
+        this.snapshot = snapshot;
+        invalidate();
+    }
+
+    public void release() {
+        if (atlas != null) {
+            atlas.release();
+            atlas = null;
+        }
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+        if (snapshot == null || atlas == null) return;
+
+        // Game coordinates are relative to the parent layout, like the former sprite views
+        int saveCount = canvas.save();
+        canvas.translate(-getLeft(), -getTop());
+
+        drawTokens(canvas);
+        drawAsteroids(canvas);
+        drawShip(canvas);
+        drawEffects(canvas);
+
+        canvas.restoreToCount(saveCount);
+    }
+
+    private void drawAsteroids(Canvas canvas) {
+        for (int i = 0; i < snapshot.asteroidCount; i++) {
+            float x = snapshot.asteroidX[i];
+            float y = snapshot.asteroidY[i];
+            float radius = snapshot.asteroidRadius[i];
+
+            int saveCount = canvas.save();
+            canvas.rotate(snapshot.asteroidRotation[i], x + radius, y + radius);
+            int sprite = asteroidSprite(snapshot.asteroidId[i]);
+            fitCenter(sprite, x, y, 2 * radius);
+            canvas.drawBitmap(atlas.bitmap(), atlas.source(sprite), destination, spritePaint);
+            canvas.restoreToCount(saveCount);
+        }
+    }
+
+    // Each rock keeps the same look for its whole life, fragments included in the shuffle
+    private static int asteroidSprite(int asteroidId) {
+        int hash = asteroidId * 0x9E3779B1;
+        return SpriteAtlas.ASTEROID_FIRST + (hash >>> 16) % SpriteAtlas.ASTEROID_VARIANTS;
+    }
+
+    private void drawTokens(Canvas canvas) {
+        for (int i = 0; i < snapshot.tokenCount; i++) {
+            float x = snapshot.tokenX[i];
+            float y = snapshot.tokenY[i];
+            float inset = tokenSize * (1f - snapshot.tokenScale[i]) / 2f;
+            fitCenter(SpriteAtlas.TOKEN, x + inset, y + inset, tokenSize - 2 * inset);
+            canvas.drawBitmap(atlas.bitmap(), atlas.source(SpriteAtlas.TOKEN), destination, spritePaint);
+        }
+    }
+
+    private void drawShip(Canvas canvas) {
+        spritePaint.setAlpha((int) (255 * snapshot.shipAlpha));
+        fitCenter(SpriteAtlas.SHIP, snapshot.shipX, snapshot.shipY, shipSize);
+        canvas.drawBitmap(atlas.bitmap(), atlas.source(SpriteAtlas.SHIP), destination, spritePaint);
+        spritePaint.setAlpha(255);
+    }
+
+    private void drawEffects(Canvas canvas) {
+        for (int i = 0; i < snapshot.effectCount; i++) {
+            float x = snapshot.effectX[i];
+            float y = snapshot.effectY[i];
+            int alpha = (int) (255 * snapshot.effectAlpha[i]);
+
+            if (snapshot.effectType[i] == EffectSystem.SCORE_POPUP) {
+                int length = formatPoints(snapshot.effectValue[i]);
+                popupPaint.setAlpha(alpha);
+                canvas.drawText(popupText, 0, length, x, y + popupPaint.getTextSize(), popupPaint);
+            } else {
+                // Explosion over the ship
+                spritePaint.setAlpha(alpha);
+                fitCenter(SpriteAtlas.EXPLOSION, x, y, shipSize);
+                canvas.drawBitmap(atlas.bitmap(), atlas.source(SpriteAtlas.EXPLOSION), destination, spritePaint);
+                spritePaint.setAlpha(255);
+            }
+        }
+    }
+
+    // Sets destination to the sprite scaled into a square box and centred, as FIT_CENTER did
+    private void fitCenter(int spriteId, float left, float top, float boxSize) {
+        float width = atlas.width(spriteId);
+        float height = atlas.height(spriteId);
+        float scale = boxSize / Math.max(width, height);
+        float insetX = (boxSize - width * scale) / 2f;
+        float insetY = (boxSize - height * scale) / 2f;
+        destination.set(left + insetX, top + insetY, left + boxSize - insetX, top + boxSize - insetY);
+    }
+
+    // Writes "+value" into popupText, returns its length
+    private int formatPoints(int value) {
+        int digits = 1;
+        for (int rest = value / 10; rest > 0; rest /= 10) {
+            digits++;
+        }
+
+        popupText[0] = '+';
+        int length = digits + 1;
+        for (int i = length - 1; i > 0; i--) {
+            popupText[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return length;
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.javaamse;
 
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.widget.Button;
 import android.widget.CheckBox;
@@ -19,21 +18,6 @@ public class LaunchActivity extends AppCompatActivity {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_launch);
 
-        // Load best scores for each difficulty
-        SharedPreferences prefs = getSharedPreferences("GamePrefs", MODE_PRIVATE);
-        int bestScoreEasy = prefs.getInt("BestScoreEasy", 0);
-        int bestScoreNormal = prefs.getInt("BestScoreNormal", 0);
-        int bestScoreHard = prefs.getInt("BestScoreHard", 0);
-
-        // Update radio button texts to include best scores
-        RadioButton easyButton = findViewById(R.id.easyRadioButton);
-        RadioButton mediumButton = findViewById(R.id.mediumRadioButton);
-        RadioButton hardButton = findViewById(R.id.hardRadioButton);
-
-        easyButton.setText(String.format("Facile (3 asteroïdes à basse vitesse) - Meilleur: %d", bestScoreEasy));
-        mediumButton.setText(String.format("Normal (4 asteroïdes à vitesse normale) - Meilleur: %d", bestScoreNormal));
-        hardButton.setText(String.format("Difficile (5 asteroïdes à haute vitesse) - Meilleur: %d", bestScoreHard));
-
         // Set up SeekBar for TIE speed
         SeekBar tieSpeedSeekBar = findViewById(R.id.tieSpeedSeekBar);
         TextView tieSpeedValue = findViewById(R.id.tieSpeedValue);
@@ -56,6 +40,32 @@ public class LaunchActivity extends AppCompatActivity {
         startButton.setOnClickListener(v -> startGame());
     }
 
+    @Override
+    protected void onResume() {
+        super.onResume();
+        // The labels are filled once the log is loaded, the UI thread never waits on it
+        Scores.get(this).whenLoaded(store -> runOnUiThread(() -> showBestScores(store)));
+    }
+
+    private void showBestScores(ScoreStore scores) {
+        ScoreStore.Scoreboard board = scores.getScoreboard();
+
+        // Update radio button texts to include best scores
+        RadioButton easyButton = findViewById(R.id.easyRadioButton);
+        RadioButton mediumButton = findViewById(R.id.mediumRadioButton);
+        RadioButton hardButton = findViewById(R.id.hardRadioButton);
+
+        easyButton.setText(String.format("Facile (3 asteroïdes à basse vitesse) - Meilleur: %d",
+                board.getBestScore(ScoreStore.EASY)));
+        mediumButton.setText(String.format("Normal (4 asteroïdes à vitesse normale) - Meilleur: %d",
+                board.getBestScore(ScoreStore.NORMAL)));
+        hardButton.setText(String.format("Difficile (5 asteroïdes à haute vitesse) - Meilleur: %d",
+                board.getBestScore(ScoreStore.HARD)));
+
+        TextView endlessLabel = findViewById(R.id.endlessLabel);
+        endlessLabel.setText(String.format("Mode infini - Meilleur: %d", board.getBestScore(ScoreStore.ENDLESS)));
+    }
+
     private void startGame() {
         Intent intent = new Intent(this, MainActivity.class);
 
@@ -85,11 +95,16 @@ public class LaunchActivity extends AppCompatActivity {
         CheckBox gyroscopeCheckBox = findViewById(R.id.gyroscopeCheckBox);
         boolean useGyroscope = gyroscopeCheckBox.isChecked();
 
+        // Endless mode starts from the chosen difficulty and adds waves of asteroids
+        CheckBox endlessCheckBox = findViewById(R.id.endlessCheckBox);
+        boolean endlessMode = endlessCheckBox.isChecked();
+
         // Pass parameters to MainActivity
         intent.putExtra("ASTEROID_COUNT", asteroidCount);
         intent.putExtra("ASTEROID_SPEED_FACTOR", speedFactor);
         intent.putExtra("TIE_SPEED", tieSpeed);
         intent.putExtra("USE_GYROSCOPE", useGyroscope);
+        intent.putExtra("ENDLESS_MODE", endlessMode);
 
         startActivity(intent);
     }
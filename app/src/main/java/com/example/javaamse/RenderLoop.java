@@ -0,0 +1,52 @@
+package com.example.javaamse;
+
+import android.view.Choreographer;
+
+/**
+ * Asks the UI to draw once per display frame.
+ */
+public class RenderLoop implements Choreographer.FrameCallback {
+
+    public interface Callback {
+        // frameTimeNanos is the vsync time the frame is drawn for
+        void onRender(long frameTimeNanos);
+    }
+
+    private final Choreographer choreographer;
+    private final Callback callback;
+
+    private boolean running = false;
+
+    // Must be created on a thread with a Looper (the main thread)
+    public RenderLoop(Callback callback) {
+        this.choreographer = Choreographer.getInstance();
+        this.callback = callback;
+    }
+
+    public void start() {
+        if (running) return;
+        running = true;
+        choreographer.postFrameCallback(this);
+    }
+
+    public void stop() {
+        running = false;
+        choreographer.removeFrameCallback(this);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        if (!running) return;
+
+        callback.onRender(frameTimeNanos);
+
+        // Exactly one callback queued per frame
+        if (running) {
+            choreographer.postFrameCallback(this);
+        }
+    }
+}
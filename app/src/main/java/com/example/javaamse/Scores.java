@@ -0,0 +1,47 @@
+package com.example.javaamse;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * The app's one ScoreStore, seeded with the old "GamePrefs" best scores.
+ */
+final class Scores {
+
+    private static final String SCORES_FILE = "scores.log";
+
+    private static ScoreStore store;
+
+    private Scores() {
+    }
+
+    static synchronized ScoreStore get(Context context) {
+        if (store == null) {
+            Context application = context.getApplicationContext();
+            // Finding the files directory and reading the preferences both happen on the store's thread
+            store = new ScoreStore(() -> new File(application.getFilesDir(), SCORES_FILE),
+                    () -> importBestScores(application));
+        }
+        return store;
+    }
+
+    private static ScoreStore.Run[] importBestScores(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences("GamePrefs", Context.MODE_PRIVATE);
+        String[] keys = {"BestScoreEasy", "BestScoreNormal", "BestScoreHard", "BestScoreEndless"};
+        int[] difficulties = {ScoreStore.EASY, ScoreStore.NORMAL, ScoreStore.HARD, ScoreStore.ENDLESS};
+
+        // Only the score is known, the rest of those runs was never kept
+        int count = 0;
+        ScoreStore.Run[] runs = new ScoreStore.Run[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            int best = prefs.getInt(keys[i], 0);
+            if (best > 0) {
+                runs[count++] = new ScoreStore.Run(0, 0, best, 0, difficulties[i], 0);
+            }
+        }
+        return Arrays.copyOf(runs, count);
+    }
+}
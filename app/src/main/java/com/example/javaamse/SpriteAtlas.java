@@ -0,0 +1,150 @@
+package com.example.javaamse;
+
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+/**
+ * Every game sprite decoded once at its drawn size into one shared bitmap.
+ */
+public final class SpriteAtlas {
+
+    // Sprite ids, the four asteroid variants are consecutive
+    public static final int SHIP = 0;
+    public static final int TOKEN = 1;
+    public static final int EXPLOSION = 2;
+    public static final int ASTEROID_FIRST = 3;
+    public static final int ASTEROID_VARIANTS = 4;
+    public static final int SPRITE_COUNT = ASTEROID_FIRST + ASTEROID_VARIANTS;
+
+    private static final int MAX_ATLAS_WIDTH = 1024; // pixels
+    private static final int PADDING = 1; // Keeps bitmap filtering from bleeding into neighbours
+
+    private final Bitmap bitmap;
+    private final Rect[] sources = new Rect[SPRITE_COUNT];
+    // Each sprite fitted inside its size with the source PNG's ratio kept
+    private final int[] widths = new int[SPRITE_COUNT];
+    private final int[] heights = new int[SPRITE_COUNT];
+
+    public SpriteAtlas(Resources resources, int shipSize, int tokenSize, int asteroidSize) {
+        int[] drawables = new int[SPRITE_COUNT];
+        int[] sizes = new int[SPRITE_COUNT];
+        drawables[SHIP] = R.drawable.tie;
+        sizes[SHIP] = shipSize;
+        drawables[TOKEN] = R.drawable.point_token;
+        sizes[TOKEN] = tokenSize;
+        drawables[EXPLOSION] = R.drawable.explosion;
+        sizes[EXPLOSION] = shipSize;
+        drawables[ASTEROID_FIRST] = R.drawable.asteroid1;
+        drawables[ASTEROID_FIRST + 1] = R.drawable.asteroid2;
+        drawables[ASTEROID_FIRST + 2] = R.drawable.asteroid3;
+        drawables[ASTEROID_FIRST + 3] = R.drawable.asteroid4;
+        for (int i = 0; i < ASTEROID_VARIANTS; i++) {
+            sizes[ASTEROID_FIRST + i] = asteroidSize;
+        }
+
+        // Only the PNG headers are read here, to fit each sprite inside its size
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        bounds.inScaled = false;
+        for (int i = 0; i < SPRITE_COUNT; i++) {
+            BitmapFactory.decodeResource(resources, drawables[i], bounds);
+            widths[i] = fitWidth(bounds.outWidth, bounds.outHeight, sizes[i]);
+            heights[i] = fitHeight(bounds.outWidth, bounds.outHeight, sizes[i]);
+        }
+
+        // Lay the sprites out first, so the atlas is allocated once at its final size
+        int[] x = new int[SPRITE_COUNT];
+        int[] y = new int[SPRITE_COUNT];
+        int height = packShelves(widths, heights, MAX_ATLAS_WIDTH, x, y);
+        int width = 0;
+        for (int i = 0; i < SPRITE_COUNT; i++) {
+            width = Math.max(width, x[i] + widths[i]);
+        }
+
+        bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
+        for (int i = 0; i < SPRITE_COUNT; i++) {
+            Rect source = new Rect(x[i], y[i], x[i] + widths[i], y[i] + heights[i]);
+            Bitmap decoded = decodeAtSize(resources, drawables[i], widths[i], heights[i]);
+            canvas.drawBitmap(decoded, null, source, paint);
+            decoded.recycle();
+            sources[i] = source;
+        }
+    }
+
+    public Bitmap bitmap() {
+        return bitmap;
+    }
+
+    public Rect source(int spriteId) {
+        return sources[spriteId];
+    }
+
+    // Drawn size of a sprite, its longer side is the size it was asked for
+    public int width(int spriteId) {
+        return widths[spriteId];
+    }
+
+    public int height(int spriteId) {
+        return heights[spriteId];
+    }
+
+    public void release() {
+        bitmap.recycle();
+    }
+
+    // Subsamples while decoding so a large PNG never lands in memory at full resolution
+    private static Bitmap decodeAtSize(Resources resources, int drawable, int width, int height) {
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        options.inScaled = false;
+        BitmapFactory.decodeResource(resources, drawable, options);
+
+        int sampleSize = 1;
+        while (options.outWidth / (sampleSize * 2) >= width && options.outHeight / (sampleSize * 2) >= height) {
+            sampleSize *= 2;
+        }
+
+        options.inJustDecodeBounds = false;
+        options.inSampleSize = sampleSize;
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        return BitmapFactory.decodeResource(resources, drawable, options);
+    }
+
+    // Largest width and height with the source ratio that fit in a size x size box, FIT_CENTER style
+    static int fitWidth(int sourceWidth, int sourceHeight, int size) {
+        if (sourceWidth >= sourceHeight) return size;
+        return Math.max(1, Math.round((float) size * sourceWidth / sourceHeight));
+    }
+
+    static int fitHeight(int sourceWidth, int sourceHeight, int size) {
+        if (sourceHeight >= sourceWidth) return size;
+        return Math.max(1, Math.round((float) size * sourceHeight / sourceWidth));
+    }
+
+    // Shelf packing: left to right, a new shelf when the row is full. Returns the atlas height.
+    static int packShelves(int[] widths, int[] heights, int maxWidth, int[] outX, int[] outY) {
+        int shelfX = 0;
+        int shelfY = 0;
+        int shelfHeight = 0;
+
+        for (int i = 0; i < widths.length; i++) {
+            if (shelfX > 0 && shelfX + widths[i] > maxWidth) {
+                shelfY += shelfHeight + PADDING;
+                shelfX = 0;
+                shelfHeight = 0;
+            }
+            outX[i] = shelfX;
+            outY[i] = shelfY;
+            shelfX += widths[i] + PADDING;
+            shelfHeight = Math.max(shelfHeight, heights[i]);
+        }
+        return shelfY + shelfHeight;
+    }
+}
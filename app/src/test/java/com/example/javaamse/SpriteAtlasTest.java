@@ -0,0 +1,57 @@
+package com.example.javaamse;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SpriteAtlasTest {
+
+    @Test
+    public void shelvesWrapAtMaxWidth() {
+        int[] sizes = {120, 120, 120, 50};
+        int[] x = new int[sizes.length];
+        int[] y = new int[sizes.length];
+
+        int height = SpriteAtlas.packShelves(sizes, sizes, 250, x, y);
+
+        assertEquals(0, x[0]);
+        assertEquals(121, x[1]);
+        // Third sprite doesn't fit the first shelf
+        assertEquals(0, x[2]);
+        assertEquals(121, y[2]);
+        assertEquals(121, x[3]);
+        assertEquals(121, y[3]);
+        assertEquals(241, height);
+    }
+
+    @Test
+    public void packedSpritesNeverOverlap() {
+        int[] sizes = {70, 50, 70, 120, 120, 120, 120};
+        int[] x = new int[sizes.length];
+        int[] y = new int[sizes.length];
+
+        int height = SpriteAtlas.packShelves(sizes, sizes, 300, x, y);
+
+        for (int i = 0; i < sizes.length; i++) {
+            assertTrue(x[i] + sizes[i] <= 300);
+            assertTrue(y[i] + sizes[i] <= height);
+            for (int j = i + 1; j < sizes.length; j++) {
+                boolean apart = x[i] + sizes[i] <= x[j] || x[j] + sizes[j] <= x[i]
+                        || y[i] + sizes[i] <= y[j] || y[j] + sizes[j] <= y[i];
+                assertTrue(apart);
+            }
+        }
+    }
+
+    @Test
+    public void spritesKeepTheirRatioInsideTheirSize() {
+        // tie.png is 652x400, drawn 70 pixels wide
+        assertEquals(70, SpriteAtlas.fitWidth(652, 400, 70));
+        assertEquals(43, SpriteAtlas.fitHeight(652, 400, 70));
+        // A taller sprite is fitted by its height
+        assertEquals(53, SpriteAtlas.fitWidth(400, 532, 70));
+        assertEquals(70, SpriteAtlas.fitHeight(400, 532, 70));
+        assertEquals(120, SpriteAtlas.fitWidth(300, 300, 120));
+        assertEquals(120, SpriteAtlas.fitHeight(300, 300, 120));
+    }
+}
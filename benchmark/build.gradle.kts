@@ -0,0 +1,21 @@
+// JMH benchmarks of the simulation hot paths, run with ./gradlew :benchmark:jmh
+plugins {
+    java
+    alias(libs.plugins.jmh)
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    jmh(project(":core"))
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    // Adds gc.alloc.rate.norm, the bytes allocated per tick
+    profilers.add("gc")
+    resultFormat.set("CSV")
+}
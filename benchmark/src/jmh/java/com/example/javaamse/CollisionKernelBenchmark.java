@@ -0,0 +1,88 @@
+package com.example.javaamse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The previous sqrt-based pair test against CollisionKernel, every pair of ENTITIES per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionKernelBenchmark {
+
+    private static final int ENTITIES = 1024;
+    private static final long SEED = 1;
+
+    private final float[] x = new float[ENTITIES];
+    private final float[] y = new float[ENTITIES];
+    private final float[] size = new float[ENTITIES];
+    private final float[] centerX = new float[ENTITIES];
+    private final float[] centerY = new float[ENTITIES];
+    private final float[] collisionRadius = new float[ENTITIES];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(SEED);
+        for (int i = 0; i < ENTITIES; i++) {
+            size[i] = 50 + random.nextFloat() * 70;
+            x[i] = random.nextFloat() * 1080;
+            y[i] = random.nextFloat() * 1920;
+            centerX[i] = x[i] + size[i] / 2;
+            centerY[i] = y[i] + size[i] / 2;
+            collisionRadius[i] = CollisionKernel.effectiveRadius(size[i]);
+        }
+    }
+
+    @Benchmark
+    public int legacyPairs() {
+        int hits = 0;
+        for (int i = 0; i < ENTITIES - 1; i++) {
+            for (int j = i + 1; j < ENTITIES; j++) {
+                if (legacyIsCollision(x[i], y[i], size[i], x[j], y[j], size[j], CollisionKernel.COLLISION_THRESHOLD)) {
+                    hits++;
+                }
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int kernelPairs() {
+        int hits = 0;
+        for (int i = 0; i < ENTITIES - 1; i++) {
+            for (int j = i + 1; j < ENTITIES; j++) {
+                if (CollisionKernel.overlaps(centerX[i], centerY[i], collisionRadius[i],
+                        centerX[j], centerY[j], collisionRadius[j])) {
+                    hits++;
+                }
+            }
+        }
+        return hits;
+    }
+
+    // The check GameWorld used before the kernel: centers, radii and threshold per call, plus a sqrt
+    private static boolean legacyIsCollision(float x1, float y1, float size1,
+                                             float x2, float y2, float size2,
+                                             float collisionThresholdPercentage) {
+        float deltaX = (x1 + size1 / 2f) - (x2 + size2 / 2f);
+        float deltaY = (y1 + size1 / 2f) - (y2 + size2 / 2f);
+        float distance = (float) Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+        float collisionDistance = (size1 / 2f + size2 / 2f) * (1 - collisionThresholdPercentage * 0.5f);
+        return distance < collisionDistance;
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.javaamse;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one tick and of each physics stage in it, the arena growing with the entity count.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PhysicsBenchmark {
+
+    private static final int SCREEN_WIDTH = 1080;
+    private static final int SCREEN_HEIGHT = 1920;
+    private static final int ENTITIES_PER_SCREEN = 50;
+    private static final float SHIP_SIZE = 70;
+    private static final float TOKEN_SIZE = 50;
+    private static final float DT = GameWorld.TICK_SECONDS;
+    private static final long SEED = 1;
+
+    @Param({"5", "50", "500", "5000"})
+    public int entities;
+
+    private int width;
+    private int height;
+    private AsteroidField asteroids;
+    private UniformGrid grid;
+    private final UniformGrid.PairVisitor countContact = this::countContact;
+    private final UniformGrid.PairVisitor resolveContact = this::resolveContact;
+    private int contacts;
+
+    // As many tokens as rocks, so the token checks scale like the rest
+    private float[] tokenX;
+    private float[] tokenY;
+    private float shipX;
+    private float shipY;
+    private float shipRadius;
+    private float tokenRadius;
+
+    private GameWorld world;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        float scale = (float) Math.sqrt(Math.max(1f, entities / (float) ENTITIES_PER_SCREEN));
+        width = (int) (SCREEN_WIDTH * scale);
+        height = (int) (SCREEN_HEIGHT * scale);
+
+        Random random = new Random(SEED);
+        asteroids = new AsteroidField(entities);
+        tokenX = new float[entities];
+        tokenY = new float[entities];
+        for (int i = 0; i < entities; i++) {
+            float radius = GameWorld.ASTEROID_SIZE / 2f;
+            float velocityX = (random.nextFloat() * 2 - 1) * 750;
+            float velocityY = (random.nextFloat() * 2 - 1) * 750;
+            asteroids.add(random.nextFloat() * (width - 2 * radius), random.nextFloat() * (height - 2 * radius),
+                    velocityX, velocityY, radius, (random.nextFloat() * 2 - 1) * 187.5f);
+            tokenX[i] = random.nextFloat() * (width - TOKEN_SIZE);
+            tokenY[i] = random.nextFloat() * (height - TOKEN_SIZE);
+        }
+
+        // Same cell size rule as the game: a rock plus how far two rocks close in within a long tick
+        float maxTravel = 2 * 750f * GameWorld.MAX_TICK_MILLIS / 1000f;
+        grid = new UniformGrid(width, height, GameWorld.ASTEROID_SIZE + maxTravel, entities);
+
+        shipX = width / 2f;
+        shipY = height / 2f;
+        shipRadius = CollisionKernel.effectiveRadius(SHIP_SIZE);
+        tokenRadius = CollisionKernel.effectiveRadius(TOKEN_SIZE);
+
+        world = new GameWorld(width, height, entities, 1f, 10f, false, false, SEED, SHIP_SIZE, TOKEN_SIZE,
+                new GameWorld.Listener() {
+                    @Override
+                    public void onTokenCollected(float x, float y, int value) {
+                    }
+
+                    @Override
+                    public void onShipDestroyed(float x, float y, int score) {
+                    }
+
+                    @Override
+                    public void onGameOver(int score) {
+                    }
+                });
+        // Parked off the arena, nothing can hit it so the run never ends
+        world.setShipPosition(-10 * width, -10 * height);
+    }
+
+    @Benchmark
+    public void asteroidUpdate() {
+        asteroids.integrate(DT);
+    }
+
+    @Benchmark
+    public void wallReflection() {
+        asteroids.reflectOffWalls(width, height);
+    }
+
+    // Every pair tested, what the game did before the grid
+    @Benchmark
+    public int pairwiseCollisions() {
+        final float[] x = asteroids.x, y = asteroids.y, r = asteroids.radius, cr = asteroids.collisionRadius;
+        int hits = 0;
+        for (int i = 0; i < asteroids.count() - 1; i++) {
+            for (int j = i + 1; j < asteroids.count(); j++) {
+                if (CollisionKernel.overlaps(x[i] + r[i], y[i] + r[i], cr[i], x[j] + r[j], y[j] + r[j], cr[j])) {
+                    hits++;
+                }
+            }
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public int broadPhaseCollisions() {
+        contacts = 0;
+        grid.build(asteroids.x, asteroids.y, asteroids.radius, asteroids.count());
+        grid.visitPairs(countContact);
+        return contacts;
+    }
+
+    // Swept ship test against every rock, then the ship against every token
+    @Benchmark
+    public int shipAndTokenChecks() {
+        final float[] x = asteroids.x, y = asteroids.y, r = asteroids.radius, cr = asteroids.collisionRadius;
+        final float[] px = asteroids.previousX, py = asteroids.previousY;
+        int hits = 0;
+        for (int i = 0; i < asteroids.count(); i++) {
+            float impact = CollisionKernel.timeOfImpact(shipX, shipY, 0, 0,
+                    px[i] + r[i], py[i] + r[i], x[i] - px[i], y[i] - py[i], shipRadius + cr[i]);
+            if (impact != CollisionKernel.NO_IMPACT) hits++;
+        }
+        for (int i = 0; i < tokenX.length; i++) {
+            if (CollisionKernel.overlaps(shipX, shipY, shipRadius,
+                    tokenX[i] + TOKEN_SIZE / 2, tokenY[i] + TOKEN_SIZE / 2, tokenRadius)) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    // The stages chained like in the game, contacts resolved
+    @Benchmark
+    public int physicsTick() {
+        asteroids.integrate(DT);
+        asteroids.reflectOffWalls(width, height);
+        grid.build(asteroids.x, asteroids.y, asteroids.radius, asteroids.count());
+        grid.visitPairs(resolveContact);
+        return shipAndTokenChecks();
+    }
+
+    // The real thing: input, physics, tokens, effects and timers
+    @Benchmark
+    public boolean worldStep() {
+        return world.step(DT);
+    }
+
+    private void countContact(int i, int j) {
+        if (sweptImpact(i, j) != CollisionKernel.NO_IMPACT) contacts++;
+    }
+
+    private void resolveContact(int i, int j) {
+        float impact = sweptImpact(i, j);
+        if (impact == CollisionKernel.NO_IMPACT) return;
+
+        if (impact > 0f) {
+            asteroids.resolveSweptContact(i, j, impact, DT);
+        } else {
+            asteroids.resolveContact(i, j);
+        }
+    }
+
+    private float sweptImpact(int i, int j) {
+        final float[] x = asteroids.x, y = asteroids.y;
+        final float[] px = asteroids.previousX, py = asteroids.previousY;
+        final float[] r = asteroids.radius, cr = asteroids.collisionRadius;
+        return CollisionKernel.timeOfImpact(
+                px[i] + r[i], py[i] + r[i], x[i] - px[i], y[i] - py[i],
+                px[j] + r[j], py[j] + r[j], x[j] - px[j], y[j] - py[j],
+                cr[i] + cr[j]);
+    }
+}
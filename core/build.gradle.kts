@@ -0,0 +1,13 @@
+// The simulation in plain Java: no Android dependency, so it runs and is measured on any JVM
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
@@ -0,0 +1,216 @@
+package com.example.javaamse;
+
+/**
+ * Asteroid state as parallel arrays; slots 0..count-1 are live, removal swaps the last one in.
+ */
+public final class AsteroidField {
+
+    // Stable per-rock id, survives the swap on removal
+    public final int[] id;
+    public final float[] x;
+    public final float[] y;
+    public final float[] previousX;
+    public final float[] previousY;
+    public final float[] velocityX;
+    public final float[] velocityY;
+    public final float[] radius;
+    public final float[] collisionRadius;
+    public final float[] inverseMass;
+    public final float[] rotationAngle;
+    public final float[] rotationSpeed;
+
+    private int count = 0;
+    private int nextId = 0;
+
+    public AsteroidField(int capacity) {
+        id = new int[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        previousX = new float[capacity];
+        previousY = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        radius = new float[capacity];
+        collisionRadius = new float[capacity];
+        inverseMass = new float[capacity];
+        rotationAngle = new float[capacity];
+        rotationSpeed = new float[capacity];
+    }
+
+    public int capacity() {
+        return x.length;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    // Returns the new asteroid's index, or -1 when the field is full
+    public int add(float x, float y, float velocityX, float velocityY, float radius, float rotationSpeed) {
+        if (count == capacity()) return -1;
+
+        int index = count++;
+        this.id[index] = nextId++;
+        this.x[index] = x;
+        this.y[index] = y;
+        this.previousX[index] = x;
+        this.previousY[index] = y;
+        this.velocityX[index] = velocityX;
+        this.velocityY[index] = velocityY;
+        this.radius[index] = radius;
+        this.collisionRadius[index] = CollisionKernel.effectiveRadius(2 * radius);
+        // Mass grows with the rock's area
+        this.inverseMass[index] = 1f / (radius * radius);
+        this.rotationAngle[index] = 0f;
+        this.rotationSpeed[index] = rotationSpeed;
+        return index;
+    }
+
+    // Swap-remove: the last asteroid takes over the freed slot
+    public void remove(int index) {
+        int last = --count;
+        if (index != last) {
+            id[index] = id[last];
+            x[index] = x[last];
+            y[index] = y[last];
+            previousX[index] = previousX[last];
+            previousY[index] = previousY[last];
+            velocityX[index] = velocityX[last];
+            velocityY[index] = velocityY[last];
+            radius[index] = radius[last];
+            collisionRadius[index] = collisionRadius[last];
+            inverseMass[index] = inverseMass[last];
+            rotationAngle[index] = rotationAngle[last];
+            rotationSpeed[index] = rotationSpeed[last];
+        }
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    // clear() and ids numbered from zero again, as in a new field
+    public void reset() {
+        count = 0;
+        nextId = 0;
+    }
+
+    // Velocities are in pixels per second and spins in degrees per second
+    public void integrate(float dt) {
+        final int n = count;
+        final float[] x = this.x, y = this.y, vx = velocityX, vy = velocityY;
+        final float[] angle = rotationAngle, spin = rotationSpeed;
+
+        // Remember where each rock started the tick, for swept collision tests
+        System.arraycopy(x, 0, previousX, 0, n);
+        System.arraycopy(y, 0, previousY, 0, n);
+
+        // Update positions
+        for (int i = 0; i < n; i++) {
+            x[i] += vx[i] * dt;
+            y[i] += vy[i] * dt;
+        }
+
+        // Update rotations, kept within [0, 360]
+        for (int i = 0; i < n; i++) {
+            float a = angle[i] + spin[i] * dt;
+            if (a > 360) {
+                a -= 360;
+            } else if (a < 0) {
+                a += 360;
+            }
+            angle[i] = a;
+        }
+    }
+
+    public void reflectOffWalls(float width, float height) {
+        final int n = count;
+        final float[] x = this.x, y = this.y, vx = velocityX, vy = velocityY, r = radius;
+
+        for (int i = 0; i < n; i++) {
+            float size = 2 * r[i];
+
+            // Left or right wall: reverse X velocity and clamp to prevent sticking
+            if (x[i] <= 0) {
+                vx[i] = -vx[i];
+                x[i] = 0;
+            } else if (x[i] + size >= width) {
+                vx[i] = -vx[i];
+                x[i] = width - size;
+            }
+
+            // Top or bottom wall
+            if (y[i] <= 0) {
+                vy[i] = -vy[i];
+                y[i] = 0;
+            } else if (y[i] + size >= height) {
+                vy[i] = -vy[i];
+                y[i] = height - size;
+            }
+        }
+    }
+
+    // Contact somewhere along this tick's motion: rewind both rocks to the time of impact,
+    // bounce them there and let them travel the rest of the tick with their new velocities
+    public void resolveSweptContact(int i, int j, float timeOfImpact, float dt) {
+        float remaining = (1f - timeOfImpact) * dt;
+        x[i] = previousX[i] + (x[i] - previousX[i]) * timeOfImpact;
+        y[i] = previousY[i] + (y[i] - previousY[i]) * timeOfImpact;
+        x[j] = previousX[j] + (x[j] - previousX[j]) * timeOfImpact;
+        y[j] = previousY[j] + (y[j] - previousY[j]) * timeOfImpact;
+
+        applyContactImpulse(i, j, true);
+
+        x[i] += velocityX[i] * remaining;
+        y[i] += velocityY[i] * remaining;
+        x[j] += velocityX[j] * remaining;
+        y[j] += velocityY[j] * remaining;
+    }
+
+    // Elastic response for two overlapping asteroids: an impulse along the contact normal
+    // and a push apart by the full penetration depth, so the contact resolves in one tick
+    public void resolveContact(int i, int j) {
+        applyContactImpulse(i, j, false);
+    }
+
+    private void applyContactImpulse(int i, int j, boolean touching) {
+        float dx = (x[j] + radius[j]) - (x[i] + radius[i]);
+        float dy = (y[j] + radius[j]) - (y[i] + radius[i]);
+        float distanceSquared = dx * dx + dy * dy;
+        float reach = collisionRadius[i] + collisionRadius[j];
+        if (!touching && distanceSquared >= reach * reach) return;
+
+        // Contact normal from i to j, any direction will do for coincident centers
+        float distance = (float) Math.sqrt(distanceSquared);
+        float normalX = 1f;
+        float normalY = 0f;
+        if (distance > 0f) {
+            normalX = dx / distance;
+            normalY = dy / distance;
+        }
+
+        float inverseMassI = inverseMass[i];
+        float inverseMassJ = inverseMass[j];
+        float inverseMassSum = inverseMassI + inverseMassJ;
+
+        // Impulse only when the rocks are moving towards each other
+        float approachSpeed = (velocityX[j] - velocityX[i]) * normalX + (velocityY[j] - velocityY[i]) * normalY;
+        if (approachSpeed < 0f) {
+            float impulse = -2f * approachSpeed / inverseMassSum;
+            velocityX[i] -= impulse * inverseMassI * normalX;
+            velocityY[i] -= impulse * inverseMassI * normalY;
+            velocityX[j] += impulse * inverseMassJ * normalX;
+            velocityY[j] += impulse * inverseMassJ * normalY;
+        }
+
+        // Positional correction, the lighter rock moves further
+        float penetration = reach - distance;
+        if (penetration <= 0f) return;
+        float correctionI = penetration * inverseMassI / inverseMassSum;
+        float correctionJ = penetration * inverseMassJ / inverseMassSum;
+        x[i] -= normalX * correctionI;
+        y[i] -= normalY * correctionI;
+        x[j] += normalX * correctionJ;
+        y[j] += normalY * correctionJ;
+    }
+}
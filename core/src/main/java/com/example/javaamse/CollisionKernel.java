@@ -0,0 +1,62 @@
+package com.example.javaamse;
+
+/**
+ * Circle overlap and swept-impact tests on squared distances, radii computed once per entity.
+ */
+public final class CollisionKernel {
+
+    // Fraction of the sprite overlap tolerated before a hit counts
+    public static final float COLLISION_THRESHOLD = 0.2f;
+
+    // Returned by timeOfImpact when the circles don't touch during the step
+    public static final float NO_IMPACT = -1f;
+
+    private CollisionKernel() {
+    }
+
+    // Collision radius of a square sprite, with the threshold already applied
+    public static float effectiveRadius(float size) {
+        return size / 2f * (1 - COLLISION_THRESHOLD * 0.5f);
+    }
+
+    // Circles given by their centers and effective radii
+    public static boolean overlaps(float ax, float ay, float aRadius,
+                                   float bx, float by, float bRadius) {
+        float dx = ax - bx;
+        float dy = ay - by;
+        float reach = aRadius + bRadius;
+        return dx * dx + dy * dy < reach * reach;
+    }
+
+    public static float distanceSquared(float x1, float y1, float x2, float y2) {
+        float dx = x2 - x1;
+        float dy = y2 - y1;
+        return dx * dx + dy * dy;
+    }
+
+    // Swept-circle test: both circles move linearly over the step, a from (ax, ay) by (adx, ady)
+    // and b from (bx, by) by (bdx, bdy). Returns the first time in [0, 1] at which their
+    // centers are reach apart, or NO_IMPACT, so fast movers can't tunnel through each other.
+    public static float timeOfImpact(float ax, float ay, float adx, float ady,
+                                     float bx, float by, float bdx, float bdy,
+                                     float reach) {
+        // Relative position and motion of b seen from a
+        float px = bx - ax;
+        float py = by - ay;
+        float dx = bdx - adx;
+        float dy = bdy - ady;
+
+        float c = px * px + py * py - reach * reach;
+        if (c < 0f) return 0f; // Already overlapping at the start
+
+        float a = dx * dx + dy * dy;
+        float b = px * dx + py * dy;
+        if (a == 0f || b >= 0f) return NO_IMPACT; // Not moving towards each other
+
+        float discriminant = b * b - a * c;
+        if (discriminant < 0f) return NO_IMPACT;
+
+        float t = (-b - (float) Math.sqrt(discriminant)) / a;
+        return t <= 1f ? t : NO_IMPACT;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.javaamse;
+
+/**
+ * Score popups and explosions in fixed arrays, their tweens advanced by the game tick.
+ */
+public final class EffectSystem {
+
+    public static final int SCORE_POPUP = 0;
+    public static final int EXPLOSION = 1;
+
+    public static final int SCORE_POPUP_DURATION = 700; // milliseconds
+    public static final float SCORE_POPUP_RISE = 100; // pixels
+    public static final int EXPLOSION_DURATION = 500;
+    public static final int TOKEN_PULSE_DURATION = 800;
+
+    public final int[] type;
+    public final int[] value;
+    public final float[] x;
+    public final float[] y;
+    public final float[] elapsedMs;
+    public final float[] durationMs;
+
+    // Tween outputs, refreshed by update()
+    public final float[] alpha;
+    public final float[] offsetY;
+
+    private int count = 0;
+
+    public EffectSystem(int capacity) {
+        type = new int[capacity];
+        value = new int[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        elapsedMs = new float[capacity];
+        durationMs = new float[capacity];
+        alpha = new float[capacity];
+        offsetY = new float[capacity];
+    }
+
+    public int capacity() {
+        return type.length;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    // Returns the new effect's index, or -1 when every slot is busy and the effect is dropped
+    public int add(int type, float x, float y, int value) {
+        if (count == capacity()) return -1;
+
+        int index = count++;
+        this.type[index] = type;
+        this.value[index] = value;
+        this.x[index] = x;
+        this.y[index] = y;
+        this.elapsedMs[index] = 0;
+        this.durationMs[index] = type == SCORE_POPUP ? SCORE_POPUP_DURATION : EXPLOSION_DURATION;
+        this.alpha[index] = 1f;
+        this.offsetY[index] = 0f;
+        return index;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public void update(float stepMs) {
+        for (int i = count - 1; i >= 0; i--) {
+            float elapsed = elapsedMs[i] + stepMs;
+            if (elapsed >= durationMs[i]) {
+                remove(i);
+                continue;
+            }
+            elapsedMs[i] = elapsed;
+
+            // Both effects fade out, popups also float up
+            float progress = elapsed / durationMs[i];
+            alpha[i] = 1f - progress;
+            offsetY[i] = type[i] == SCORE_POPUP ? -SCORE_POPUP_RISE * progress : 0f;
+        }
+    }
+
+    // Token scale going 0.8 -> 1.2 -> 0.8, driven by the token's age
+    public static float pulseScale(float ageMs) {
+        float phase = (ageMs % (2 * TOKEN_PULSE_DURATION)) / TOKEN_PULSE_DURATION;
+        if (phase > 1f) phase = 2f - phase;
+        return 0.8f + 0.4f * phase;
+    }
+
+    private void remove(int index) {
+        int last = --count;
+        if (index != last) {
+            type[index] = type[last];
+            value[index] = value[last];
+            x[index] = x[last];
+            y[index] = y[last];
+            elapsedMs[index] = elapsedMs[last];
+            durationMs[index] = durationMs[last];
+            alpha[index] = alpha[last];
+            offsetY[index] = offsetY[last];
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.javaamse;
+
+/**
+ * Game state published by the game thread after each tick, read-only for the UI thread.
+ */
+public final class GameSnapshot {
+
+    public long tick;
+    public int score;
+    public boolean invulnerable;
+
+    // Game thread timing over the ticks since the previous snapshot
+    public long tickNanos; // Longest tick
+    public long wakeLatenessNanos; // How late the thread woke up for them
+    public long tickOverruns; // Ticks over their time budget since the start
+    public int candidatePairCount;
+
+    // Ship
+    public float shipX;
+    public float shipY;
+    public float shipAlpha;
+
+    // Asteroids
+    public int asteroidCount;
+    public final int[] asteroidId;
+    public final float[] asteroidX;
+    public final float[] asteroidY;
+    public final float[] asteroidRotation;
+    public final float[] asteroidRadius;
+
+    // Point tokens
+    public int tokenCount;
+    public final int[] tokenId;
+    public final float[] tokenX;
+    public final float[] tokenY;
+    public final float[] tokenScale;
+
+    // Effects, with their tweens already applied
+    public int effectCount;
+    public final int[] effectType;
+    public final int[] effectValue;
+    public final float[] effectX;
+    public final float[] effectY;
+    public final float[] effectAlpha;
+
+    public GameSnapshot(int maxAsteroids, int maxTokens, int maxEffects) {
+        asteroidId = new int[maxAsteroids];
+        asteroidX = new float[maxAsteroids];
+        asteroidY = new float[maxAsteroids];
+        asteroidRotation = new float[maxAsteroids];
+        asteroidRadius = new float[maxAsteroids];
+        tokenId = new int[maxTokens];
+        tokenX = new float[maxTokens];
+        tokenY = new float[maxTokens];
+        tokenScale = new float[maxTokens];
+        effectType = new int[maxEffects];
+        effectValue = new int[maxEffects];
+        effectX = new float[maxEffects];
+        effectY = new float[maxEffects];
+        effectAlpha = new float[maxEffects];
+    }
+
+    public boolean containsToken(int id) {
+        for (int i = 0; i < tokenCount; i++) {
+            if (tokenId[i] == id) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.javaamse;
+
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs the simulation in fixed-timestep ticks on its own clock and publishes a snapshot after each batch.
+ */
+public class GameThread extends Thread {
+
+    public interface Simulation {
+        // Advances the game by deltaSeconds, returns false once there is nothing left to run
+        boolean step(float deltaSeconds);
+
+        void writeSnapshot(GameSnapshot out);
+    }
+
+    // Cap on catch-up ticks per wakeup so a long stall doesn't snowball
+    private static final int MAX_STEPS_PER_WAKEUP = 5;
+
+    private final Simulation simulation;
+    private final LongSupplier clock; // Nanoseconds, System.nanoTime outside of tests
+    private final SnapshotBuffer<GameSnapshot> snapshots;
+    private volatile long stepNanos;
+    private Runnable onStart;
+    private Runnable onExit;
+
+    private volatile boolean running = true;
+    private volatile boolean paused = false;
+    private long tickOverruns = 0;
+
+    public GameThread(Simulation simulation, SnapshotBuffer<GameSnapshot> snapshots, long stepMillis) {
+        this(simulation, snapshots, stepMillis, System::nanoTime);
+    }
+
+    GameThread(Simulation simulation, SnapshotBuffer<GameSnapshot> snapshots, long stepMillis, LongSupplier clock) {
+        super("GameThread");
+        this.simulation = simulation;
+        this.clock = clock;
+        this.snapshots = snapshots;
+        this.stepNanos = stepMillis * 1_000_000L;
+    }
+
+    // Set before start(), runs on the game thread before the first tick, e.g. to open files off the UI thread
+    public void setOnStart(Runnable onStart) {
+        this.onStart = onStart;
+    }
+
+    // Set before start(), runs on the game thread once the game is over or the thread shut down
+    public void setOnExit(Runnable onExit) {
+        this.onExit = onExit;
+    }
+
+    // Changes the tick length, e.g. to throttle on weak devices; gameplay speed is unaffected
+    public void setStepMillis(long stepMillis) {
+        stepNanos = stepMillis * 1_000_000L;
+    }
+
+    public int getStepMillis() {
+        return (int) (stepNanos / 1_000_000L);
+    }
+
+    // Freezes the game clock: no tick runs and no time piles up until resumed
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        if (!paused) {
+            LockSupport.unpark(this);
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(this);
+    }
+
+    @Override
+    public void run() {
+        if (onStart != null) {
+            onStart.run();
+        }
+        try {
+            runTicks();
+        } finally {
+            if (onExit != null) {
+                onExit.run();
+            }
+        }
+    }
+
+    private void runTicks() {
+        long previousNanos = clock.getAsLong();
+        long accumulatorNanos = 0;
+        long wakeDueNanos = previousNanos;
+
+        while (running) {
+            if (paused) {
+                LockSupport.park(this);
+
+                // Resume exactly where play stopped, the paused time is never simulated
+                previousNanos = clock.getAsLong();
+                wakeDueNanos = previousNanos;
+                accumulatorNanos = 0;
+                continue;
+            }
+
+            long stepNanos = this.stepNanos;
+            float stepSeconds = stepNanos / 1_000_000_000f;
+            long nowNanos = clock.getAsLong();
+            accumulatorNanos += nowNanos - previousNanos;
+            previousNanos = nowNanos;
+            long wakeLatenessNanos = Math.max(0, nowNanos - wakeDueNanos);
+
+            int steps = 0;
+            long longestTickNanos = 0;
+            while (running && accumulatorNanos >= stepNanos && steps < MAX_STEPS_PER_WAKEUP) {
+                long tickStartNanos = clock.getAsLong();
+                if (!simulation.step(stepSeconds)) {
+                    running = false;
+                }
+                long tickNanos = clock.getAsLong() - tickStartNanos;
+                longestTickNanos = Math.max(longestTickNanos, tickNanos);
+                if (tickNanos > stepNanos) {
+                    tickOverruns++;
+                }
+                accumulatorNanos -= stepNanos;
+                steps++;
+            }
+
+            // Drop whatever is left after a long stall instead of fast-forwarding
+            if (accumulatorNanos >= stepNanos) {
+                accumulatorNanos = 0;
+            }
+
+            if (steps > 0) {
+                GameSnapshot snapshot = snapshots.getWriteBuffer();
+                simulation.writeSnapshot(snapshot);
+                snapshot.tickNanos = longestTickNanos;
+                snapshot.wakeLatenessNanos = wakeLatenessNanos;
+                snapshot.tickOverruns = tickOverruns;
+                snapshots.publish();
+            }
+
+            // Sleep until the next tick is due
+            if (running) {
+                long sleepNanos = stepNanos - accumulatorNanos;
+                wakeDueNanos = clock.getAsLong() + sleepNanos;
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+        }
+    }
+}
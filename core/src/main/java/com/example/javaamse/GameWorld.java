@@ -0,0 +1,842 @@
+package com.example.javaamse;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Game state and rules in plain Java, owned by the game thread.
+ */
+public class GameWorld implements GameThread.Simulation {
+
+    // Game constants
+    public static final int TICK_MILLIS = 16; // ~60 FPS, default game tick
+    public static final float TICK_SECONDS = TICK_MILLIS / 1000f;
+    public static final int MAX_TICK_MILLIS = 50; // Longest step the physics accepts (20 Hz)
+    public static final int INVULNERABILITY_DURATION = 2000; // 2 seconds
+    private static final int BLINK_INTERVAL = 200;
+    private static final int SCORE_INCREMENT_INTERVAL = 1000; // 1 second
+
+    // Ship speed in pixels per second per unit of tieSpeed (tuned as tieSpeed pixels every 10 ms)
+    private static final float SHIP_SPEED_SCALE = 100f;
+
+    // Physics constants, speeds in pixels per second and degrees per second
+    public static final int ASTEROID_SIZE = 120; // pixels
+    private static final float MIN_ASTEROID_SPEED = 500.0f;
+    private static final float MAX_ASTEROID_SPEED = 750.0f;
+    private static final float MAX_ASTEROID_SPIN = 187.5f;
+    private static final float SHIP_SAFE_DISTANCE = 200.0f; // No rock spawns closer than this to the ship
+    private static final int MAX_PLACEMENT_ATTEMPTS = 30;
+    private static final int PLACEMENT_REBUILD_BATCH = 32; // Rocks placed before the grid is rebuilt
+
+    // Endless mode: waves of rocks that split over time, fragments leave at the walls
+    public static final int MAX_ENDLESS_ASTEROIDS = 400;
+    public static final int WAVE_INTERVAL = 10000; // 10 seconds
+    public static final int SPLIT_INTERVAL = 4000;
+    private static final float SPLIT_RATIO = 0.7f; // Fragment radius relative to its parent
+    private static final float MIN_SPLIT_RADIUS = 40.0f; // Smaller rocks are fragments
+    private static final float SPLIT_ANGLE = 0.5f; // Radians each fragment turns away from the parent's path
+    // StrictMath gives the same bits on every device, which replays rely on
+    private static final float SPLIT_COS = (float) StrictMath.cos(SPLIT_ANGLE);
+    private static final float SPLIT_SIN = (float) StrictMath.sin(SPLIT_ANGLE);
+
+    // Token constants
+    public static final int MAX_POINT_TOKENS = 1;
+    public static final int TOKEN_SPAWN_INTERVAL = 2000; // 2 seconds
+    public static final int TOKEN_LIFETIME = 8000; // 8 seconds
+    public static final int TOKEN_POINTS = 20;
+    public static final float TOKEN_SHIP_CLEARANCE = 200.0f; // Token center to ship center
+    public static final float TOKEN_ASTEROID_GAP = 90.0f; // Token center to rock edge
+    private static final float TOKEN_PLACEMENT_CELL = 40.0f; // pixels
+    public static final int MAX_EFFECTS = 8;
+
+    // Scheduled events, the timer wheel ticks in milliseconds of game time
+    private static final int EVENT_SPAWN_TOKEN = 0;
+    private static final int EVENT_EXPIRE_TOKEN = 1;
+    private static final int EVENT_SCORE = 2;
+    private static final int EVENT_BLINK = 3;
+    private static final int EVENT_INVULNERABILITY_END = 4;
+    private static final int EVENT_GAME_OVER = 5;
+    private static final int EVENT_SPAWN_WAVE = 6;
+    private static final int EVENT_SPLIT = 7;
+    private static final int MAX_TIMERS = MAX_POINT_TOKENS + 8;
+
+    // Gyroscope constants
+    private static final float GYROSCOPE_SENSITIVITY = 0.05f;
+
+    // Called on the game thread
+    public interface Listener {
+        void onTokenCollected(float x, float y, int value);
+
+        void onShipDestroyed(float x, float y, int score);
+
+        // The explosion is over, nothing is left to simulate
+        void onGameOver(int score);
+    }
+
+    // Sees the input every tick is simulated with, called on the game thread
+    public interface InputRecorder {
+        void record(float deltaSeconds, boolean joystickPressed, float joystickX, float joystickY,
+                    float tiltX, float tiltY);
+    }
+
+    // Every random draw comes from the seed, so a seed plus the recorded input replays a run exactly
+    private long seed;
+    private final Random random;
+    private final Listener listener;
+
+    // Configuration
+    private final int screenWidth;
+    private final int screenHeight;
+    private final int asteroidCount;
+    private final float asteroidSpeedFactor;
+    private final boolean endlessMode;
+    private final float tieSpeed;
+    private final float shipSize;
+    private final float tokenSize;
+    private final float shipCollisionRadius;
+    private final float tokenCollisionRadius;
+
+    // Input, written by the UI thread
+    private volatile boolean useGyroscope;
+    private final JoystickInput joystick = new JoystickInput();
+    private volatile long packedTilt; // Both floats in one word, so a tick never sees half an update
+    private InputRecorder inputRecorder;
+
+    // Input latched at the start of the tick, the UI thread can't change it mid-tick
+    private boolean tickJoystickPressed;
+    private float tickJoystickX;
+    private float tickJoystickY;
+    private float tickTiltX;
+    private float tickTiltY;
+
+    // Ship, with its position at the start of the tick for swept tests
+    private float shipX;
+    private float shipY;
+    private float previousShipX;
+    private float previousShipY;
+
+    // Asteroids
+    private final AsteroidField asteroids;
+    private final UniformGrid asteroidGrid;
+    private final UniformGrid.PairVisitor asteroidContact = this::resolveAsteroidContact;
+    private int candidatePairCount = 0;
+    private int wave = 0;
+
+    // Spawn placement, queried against the grid plus the rocks placed since it was built
+    private final UniformGrid.ItemTest asteroidBlocksSpot = this::asteroidBlocksSpot;
+    private int placementIndexedCount = 0;
+    private boolean placementIndexStale = true;
+    private float spotX;
+    private float spotY;
+    private float spotRadius;
+    private float spotGap;
+    private float stepSeconds = TICK_SECONDS; // Length of the tick being resolved
+
+    // Tokens
+    private final ArrayList<PointToken> pointTokens = new ArrayList<>(MAX_POINT_TOKENS);
+    private final Pool<PointToken> tokenPool = new Pool<>(PointToken::new, MAX_POINT_TOKENS);
+    private int nextTokenId = 0;
+    private final OccupancyMap tokenPlacement;
+
+    // Score popups and the explosion, advanced by the tick like everything else
+    private final EffectSystem effects = new EffectSystem(MAX_EFFECTS);
+
+    // Delayed events
+    private final TimerWheel timers = new TimerWheel(MAX_TIMERS, this::onTimer);
+    private float timerRemainderMs = 0;
+
+    // Progress
+    private long tick = 0;
+    private int score = 0;
+    private int tokensCollected = 0;
+    private boolean invulnerable = true;
+    private boolean shipDimmed = false;
+    private boolean gameOver = false;
+    private boolean finished = false;
+
+    public GameWorld(int screenWidth, int screenHeight, int asteroidCount,
+                     float asteroidSpeedFactor, float tieSpeed, boolean useGyroscope, boolean endlessMode,
+                     long seed, float shipSize, float tokenSize, Listener listener) {
+        this.random = new Random(seed);
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        this.asteroidCount = asteroidCount;
+        this.asteroidSpeedFactor = asteroidSpeedFactor;
+        this.endlessMode = endlessMode;
+        this.tieSpeed = tieSpeed;
+        this.useGyroscope = useGyroscope;
+        this.shipSize = shipSize;
+        this.tokenSize = tokenSize;
+        this.shipCollisionRadius = CollisionKernel.effectiveRadius(shipSize);
+        this.tokenCollisionRadius = CollisionKernel.effectiveRadius(tokenSize);
+        this.listener = listener;
+
+        int capacity = endlessMode ? Math.max(asteroidCount, MAX_ENDLESS_ASTEROIDS) : asteroidCount;
+        asteroids = new AsteroidField(capacity);
+        // Cells also cover how far two rocks can close in on each other within a tick
+        float maxTravel = 2 * MAX_ASTEROID_SPEED * asteroidSpeedFactor * MAX_TICK_MILLIS / 1000f;
+        asteroidGrid = new UniformGrid(screenWidth, screenHeight, ASTEROID_SIZE + maxTravel, capacity);
+
+        // Token centers stay far enough from the edges for the whole token to be on screen
+        tokenPlacement = new OccupancyMap(tokenSize / 2, tokenSize / 2,
+                screenWidth - tokenSize, screenHeight - tokenSize, TOKEN_PLACEMENT_CELL);
+
+        reset(seed);
+    }
+
+    // New run in place, as if just built with this seed. Call it while no game thread is stepping the world.
+    public void reset(long seed) {
+        this.seed = seed;
+        random.setSeed(seed);
+
+        tick = 0;
+        score = 0;
+        tokensCollected = 0;
+        invulnerable = true;
+        shipDimmed = false;
+        gameOver = false;
+        finished = false;
+        wave = 0;
+        candidatePairCount = 0;
+        stepSeconds = TICK_SECONDS;
+
+        // Tokens go back to the pool, effects and pending events are dropped
+        for (int i = pointTokens.size() - 1; i >= 0; i--) {
+            tokenPool.release(pointTokens.get(i));
+        }
+        pointTokens.clear();
+        nextTokenId = 0;
+        effects.clear();
+        timers.reset();
+        timerRemainderMs = 0;
+
+        // Set initial position of the Tie Fighter
+        shipX = 0;
+        shipY = -screenHeight / 3f;
+        previousShipX = shipX;
+        previousShipY = shipY;
+
+        asteroids.reset();
+        placementIndexedCount = 0;
+        placementIndexStale = true;
+        initializeAsteroidPhysics(asteroidCount);
+
+        if (endlessMode) {
+            timers.schedule(WAVE_INTERVAL, EVENT_SPAWN_WAVE, 0);
+            timers.schedule(SPLIT_INTERVAL, EVENT_SPLIT, 0);
+        }
+
+        timers.schedule(TOKEN_SPAWN_INTERVAL, EVENT_SPAWN_TOKEN, 0);
+        timers.schedule(SCORE_INCREMENT_INTERVAL, EVENT_SCORE, 0);
+        timers.schedule(BLINK_INTERVAL, EVENT_BLINK, 0);
+        timers.schedule(INVULNERABILITY_DURATION, EVENT_INVULNERABILITY_END, 0);
+    }
+
+    // The UI thread feeds touch samples here directly, see JoystickInput
+    public JoystickInput getJoystick() {
+        return joystick;
+    }
+
+    // One sample, published right away
+    public void setJoystick(boolean pressed, float x, float y) {
+        if (pressed) {
+            joystick.addSample(x, y);
+        } else {
+            joystick.release();
+        }
+        joystick.publish();
+    }
+
+    // Smoothed tilt, see TiltFilter
+    public void setTilt(float x, float y) {
+        packedTilt = ((long) Float.floatToRawIntBits(x) << 32) | (Float.floatToRawIntBits(y) & 0xffffffffL);
+    }
+
+    // Set before the game thread starts
+    public void setInputRecorder(InputRecorder recorder) {
+        inputRecorder = recorder;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public GameSnapshot createSnapshot() {
+        return new GameSnapshot(asteroids.capacity(), MAX_POINT_TOKENS, MAX_EFFECTS);
+    }
+
+    public float getShipX() {
+        return shipX;
+    }
+
+    public float getShipY() {
+        return shipY;
+    }
+
+    public void setShipPosition(float x, float y) {
+        shipX = x;
+        shipY = y;
+        previousShipX = x;
+        previousShipY = y;
+    }
+
+    public int getAsteroidCapacity() {
+        return asteroids.capacity();
+    }
+
+    public float getAsteroidRadius(int index) {
+        return asteroids.radius[index];
+    }
+
+    public int getAsteroidCount() {
+        return asteroids.count();
+    }
+
+    public float getAsteroidX(int index) {
+        return asteroids.x[index];
+    }
+
+    public float getAsteroidY(int index) {
+        return asteroids.y[index];
+    }
+
+    public float getAsteroidVelocityX(int index) {
+        return asteroids.velocityX[index];
+    }
+
+    public float getAsteroidVelocityY(int index) {
+        return asteroids.velocityY[index];
+    }
+
+    public void setAsteroid(int index, float x, float y, float velocityX, float velocityY) {
+        asteroids.x[index] = x;
+        asteroids.y[index] = y;
+        asteroids.previousX[index] = x;
+        asteroids.previousY[index] = y;
+        asteroids.velocityX[index] = velocityX;
+        asteroids.velocityY[index] = velocityY;
+    }
+
+    // Broad-phase pairs handed to the narrow phase during the last tick
+    public int getCandidatePairCount() {
+        return candidatePairCount;
+    }
+
+    public int getTokenCount() {
+        return pointTokens.size();
+    }
+
+    public float getTokenX(int index) {
+        return pointTokens.get(index).x;
+    }
+
+    public float getTokenY(int index) {
+        return pointTokens.get(index).y;
+    }
+
+    public int getEffectCount() {
+        return effects.count();
+    }
+
+    public int getTokenPoolCreatedCount() {
+        return tokenPool.createdCount();
+    }
+
+    public int getTokensCollected() {
+        return tokensCollected;
+    }
+
+    // Game time since the start of the run, paused time excluded
+    public long getElapsedMillis() {
+        return timers.now();
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public boolean isInvulnerable() {
+        return invulnerable;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    // Hash of the exact simulation state, two runs match only if every bit of it does
+    public long stateChecksum() {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, tick);
+        hash = mix(hash, score);
+        hash = mix(hash, (gameOver ? 1 : 0) | (invulnerable ? 2 : 0) | (finished ? 4 : 0));
+        hash = mix(hash, Float.floatToIntBits(shipX));
+        hash = mix(hash, Float.floatToIntBits(shipY));
+        for (int i = 0; i < asteroids.count(); i++) {
+            hash = mix(hash, asteroids.id[i]);
+            hash = mix(hash, Float.floatToIntBits(asteroids.x[i]));
+            hash = mix(hash, Float.floatToIntBits(asteroids.y[i]));
+            hash = mix(hash, Float.floatToIntBits(asteroids.velocityX[i]));
+            hash = mix(hash, Float.floatToIntBits(asteroids.velocityY[i]));
+            hash = mix(hash, Float.floatToIntBits(asteroids.rotationAngle[i]));
+        }
+        for (int i = 0; i < pointTokens.size(); i++) {
+            PointToken token = pointTokens.get(i);
+            hash = mix(hash, token.id);
+            hash = mix(hash, Float.floatToIntBits(token.x));
+            hash = mix(hash, Float.floatToIntBits(token.y));
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * 0x100000001b3L;
+    }
+
+    @Override
+    public boolean step(float deltaSeconds) {
+        // Everything is integrated with the elapsed time, capped so one long step can't break the physics
+        float dt = Math.min(deltaSeconds, MAX_TICK_MILLIS / 1000f);
+        latchInput(deltaSeconds);
+        stepSeconds = dt;
+        float elapsedMs = dt * 1000f;
+
+        // Once the ship is destroyed only the effects and the game over timer keep running
+        effects.update(elapsedMs);
+        if (gameOver) {
+            advanceTimers(elapsedMs);
+            return !finished;
+        }
+        tick++;
+
+        // Input
+        updateShipPosition(dt);
+
+        // Physics
+        asteroids.integrate(dt);
+        if (endlessMode) {
+            despawnFragmentsAtWalls();
+        }
+        asteroids.reflectOffWalls(screenWidth, screenHeight);
+        checkAsteroidCollisions();
+
+        // Collision
+        if (checkShipCollisions()) {
+            gameOver = true;
+            shipDimmed = false;
+            effects.add(EffectSystem.EXPLOSION, shipX, shipY, 0);
+
+            // Nothing but the end of the explosion is left to wait for
+            timers.clear();
+            timers.schedule(EffectSystem.EXPLOSION_DURATION, EVENT_GAME_OVER, 0);
+            listener.onShipDestroyed(shipX, shipY, score);
+            return true;
+        }
+        updatePointTokens(elapsedMs);
+
+        // Scheduled events: token spawns and expiry, scoring, invulnerability
+        advanceTimers(elapsedMs);
+        return true;
+    }
+
+    private void latchInput(float deltaSeconds) {
+        joystick.consume();
+        tickJoystickPressed = joystick.isPressed();
+        tickJoystickX = joystick.getX();
+        tickJoystickY = joystick.getY();
+        long tilt = packedTilt;
+        tickTiltX = Float.intBitsToFloat((int) (tilt >>> 32));
+        tickTiltY = Float.intBitsToFloat((int) tilt);
+        if (inputRecorder != null) {
+            inputRecorder.record(deltaSeconds, tickJoystickPressed, tickJoystickX, tickJoystickY, tickTiltX, tickTiltY);
+        }
+    }
+
+    private void advanceTimers(float elapsedMs) {
+        // The wheel ticks in whole milliseconds, carry the fraction over to the next step
+        timerRemainderMs += elapsedMs;
+        int wholeMs = (int) timerRemainderMs;
+        timerRemainderMs -= wholeMs;
+        timers.advance(wholeMs);
+    }
+
+    private void onTimer(int event, int payload) {
+        switch (event) {
+            case EVENT_SPAWN_TOKEN:
+                // Only spawn if we're below the maximum
+                if (pointTokens.size() < MAX_POINT_TOKENS) {
+                    spawnPointToken();
+                }
+                timers.schedule(TOKEN_SPAWN_INTERVAL, EVENT_SPAWN_TOKEN, 0);
+                break;
+            case EVENT_EXPIRE_TOKEN:
+                removePointToken(payload);
+                break;
+            case EVENT_SCORE:
+                score += 10;
+                timers.schedule(SCORE_INCREMENT_INTERVAL, EVENT_SCORE, 0);
+                break;
+            case EVENT_BLINK:
+                if (invulnerable) {
+                    shipDimmed = !shipDimmed;
+                    timers.schedule(BLINK_INTERVAL, EVENT_BLINK, 0);
+                }
+                break;
+            case EVENT_INVULNERABILITY_END:
+                invulnerable = false;
+                shipDimmed = false;
+                break;
+            case EVENT_GAME_OVER:
+                finished = true;
+                listener.onGameOver(score);
+                break;
+            case EVENT_SPAWN_WAVE:
+                spawnWave();
+                timers.schedule(WAVE_INTERVAL, EVENT_SPAWN_WAVE, 0);
+                break;
+            case EVENT_SPLIT:
+                splitRandomAsteroid();
+                timers.schedule(SPLIT_INTERVAL, EVENT_SPLIT, 0);
+                break;
+        }
+    }
+
+    @Override
+    public void writeSnapshot(GameSnapshot out) {
+        out.tick = tick;
+        out.score = score;
+        out.invulnerable = invulnerable;
+        out.shipX = shipX;
+        out.shipY = shipY;
+        out.shipAlpha = shipDimmed ? 0.3f : 1f;
+        out.candidatePairCount = candidatePairCount;
+
+        int count = asteroids.count();
+        out.asteroidCount = count;
+        System.arraycopy(asteroids.id, 0, out.asteroidId, 0, count);
+        System.arraycopy(asteroids.x, 0, out.asteroidX, 0, count);
+        System.arraycopy(asteroids.y, 0, out.asteroidY, 0, count);
+        System.arraycopy(asteroids.rotationAngle, 0, out.asteroidRotation, 0, count);
+        System.arraycopy(asteroids.radius, 0, out.asteroidRadius, 0, count);
+
+        out.tokenCount = pointTokens.size();
+        for (int i = 0; i < pointTokens.size(); i++) {
+            PointToken token = pointTokens.get(i);
+            out.tokenId[i] = token.id;
+            out.tokenX[i] = token.x;
+            out.tokenY[i] = token.y;
+            out.tokenScale[i] = EffectSystem.pulseScale(token.ageMs);
+        }
+
+        int effectCount = effects.count();
+        out.effectCount = effectCount;
+        for (int i = 0; i < effectCount; i++) {
+            out.effectType[i] = effects.type[i];
+            out.effectValue[i] = effects.value[i];
+            out.effectX[i] = effects.x[i];
+            out.effectY[i] = effects.y[i] + effects.offsetY[i];
+            out.effectAlpha[i] = effects.alpha[i];
+        }
+    }
+
+    private void updateShipPosition(float dt) {
+        previousShipX = shipX;
+        previousShipY = shipY;
+
+        float moveX;
+        float moveY;
+
+        if (tickJoystickPressed) {
+            // Joystick offset is already normalized, apply tieSpeed from intent
+            moveX = tickJoystickX * tieSpeed;
+            moveY = tickJoystickY * tieSpeed;
+        } else if (useGyroscope) {
+            // Apply sensitivity (negative X is right tilt, positive Y is forward tilt)
+            moveX = -tickTiltX * tieSpeed * 0.1f * GYROSCOPE_SENSITIVITY;
+            moveY = tickTiltY * tieSpeed * 0.1f * GYROSCOPE_SENSITIVITY;
+        } else {
+            return;
+        }
+
+        // Keep within screen bounds
+        float speed = SHIP_SPEED_SCALE * dt;
+        shipX = Math.max(0, Math.min(shipX + moveX * speed, screenWidth - shipSize));
+        shipY = Math.max(0, Math.min(shipY + moveY * speed, screenHeight - shipSize));
+    }
+
+    private boolean checkShipCollisions() {
+        // Only check collisions if not invulnerable
+        if (invulnerable) return false;
+
+        // Check collisions with all asteroids
+        float shipStartX = previousShipX + shipSize / 2;
+        float shipStartY = previousShipY + shipSize / 2;
+        float shipMoveX = shipX - previousShipX;
+        float shipMoveY = shipY - previousShipY;
+        final float[] x = asteroids.x, y = asteroids.y, r = asteroids.radius, cr = asteroids.collisionRadius;
+        final float[] px = asteroids.previousX, py = asteroids.previousY;
+
+        // Swept test over the whole tick so fast rocks or a fast ship can't tunnel through
+        for (int i = 0; i < asteroids.count(); i++) {
+            float impact = CollisionKernel.timeOfImpact(
+                    shipStartX, shipStartY, shipMoveX, shipMoveY,
+                    px[i] + r[i], py[i] + r[i], x[i] - px[i], y[i] - py[i],
+                    shipCollisionRadius + cr[i]);
+            if (impact != CollisionKernel.NO_IMPACT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void updatePointTokens(float elapsedMs) {
+        float shipCenterX = shipX + shipSize / 2;
+        float shipCenterY = shipY + shipSize / 2;
+
+        // Collect existing tokens, expiry is a scheduled event
+        for (int i = pointTokens.size() - 1; i >= 0; i--) {
+            PointToken token = pointTokens.get(i);
+            token.ageMs += elapsedMs;
+
+            if (CollisionKernel.overlaps(shipCenterX, shipCenterY, shipCollisionRadius,
+                    token.x + tokenSize / 2, token.y + tokenSize / 2, tokenCollisionRadius)) {
+                score += token.value;
+                tokensCollected++;
+                effects.add(EffectSystem.SCORE_POPUP, token.x, token.y, token.value);
+                listener.onTokenCollected(token.x, token.y, token.value);
+                timers.cancel(token.expiryTimer);
+                pointTokens.remove(i);
+                tokenPool.release(token);
+            }
+        }
+    }
+
+    private void removePointToken(int id) {
+        for (int i = 0; i < pointTokens.size(); i++) {
+            PointToken token = pointTokens.get(i);
+            if (token.id == id) {
+                pointTokens.remove(i);
+                tokenPool.release(token);
+                return;
+            }
+        }
+    }
+
+    private void spawnPointToken() {
+        // Block everything near the ship, the asteroids and the other tokens
+        OccupancyMap map = tokenPlacement;
+        map.clear();
+        map.markCircle(shipX + shipSize / 2, shipY + shipSize / 2, TOKEN_SHIP_CLEARANCE);
+        for (int i = 0; i < asteroids.count(); i++) {
+            float radius = asteroids.radius[i];
+            map.markCircle(asteroids.x[i] + radius, asteroids.y[i] + radius, radius + TOKEN_ASTEROID_GAP);
+        }
+        for (int i = 0; i < pointTokens.size(); i++) {
+            PointToken other = pointTokens.get(i);
+            map.markCircle(other.x + tokenSize / 2, other.y + tokenSize / 2, tokenSize);
+        }
+
+        // No safe spot left, try again at the next spawn instead of dropping it on a rock
+        int free = map.freeCount();
+        if (free == 0) return;
+
+        // Any point of a free cell is safe, pick a cell uniformly then a point inside it
+        int cell = map.nthFreeCell(random.nextInt(free));
+        float centerX = map.cellLeft(cell) + random.nextFloat() * (map.cellRight(cell) - map.cellLeft(cell));
+        float centerY = map.cellTop(cell) + random.nextFloat() * (map.cellBottom(cell) - map.cellTop(cell));
+        float tokenX = centerX - tokenSize / 2;
+        float tokenY = centerY - tokenSize / 2;
+
+        PointToken token = tokenPool.acquire();
+        token.set(nextTokenId++, tokenX, tokenY, TOKEN_POINTS);
+        token.expiryTimer = timers.schedule(TOKEN_LIFETIME, EVENT_EXPIRE_TOKEN, token.id);
+        pointTokens.add(token);
+    }
+
+    private void initializeAsteroidPhysics(int asteroidCount) {
+        // Set initial positions - distribute randomly around the screen, a rock apart from each other
+        for (int i = 0; i < asteroidCount; i++) {
+            float radius = ASTEROID_SIZE / 2f;
+            if (!findAsteroidSpot(radius, ASTEROID_SIZE)) {
+                // If we can't find a suitable position, just place it somewhere away from the TIE fighter
+                spotX = (shipX < screenWidth / 2f) ? screenWidth - 200 : 200;
+                spotY = (shipY < screenHeight / 2f) ? screenHeight - 200 : 200;
+            }
+            addAsteroid(spotX, spotY, radius);
+        }
+    }
+
+    private void spawnWave() {
+        wave++;
+        int rocks = Math.min(2 + wave, asteroids.capacity() - asteroids.count());
+        for (int i = 0; i < rocks; i++) {
+            float radius = ASTEROID_SIZE / 2f;
+            // Skip the rock when the field is too crowded to place it safely
+            if (findAsteroidSpot(radius, 0)) {
+                addAsteroid(spotX, spotY, radius);
+            }
+        }
+    }
+
+    private void addAsteroid(float x, float y, float radius) {
+        float randomVelocityX = getRandomVelocity() * asteroidSpeedFactor;
+        float randomVelocityY = getRandomVelocity() * asteroidSpeedFactor;
+        // Random rotation between -MAX_ASTEROID_SPIN and MAX_ASTEROID_SPIN degrees per second
+        float rotationSpeed = (random.nextFloat() * 2.0f - 1.0f) * MAX_ASTEROID_SPIN;
+        asteroids.add(x, y, randomVelocityX, randomVelocityY, radius, rotationSpeed);
+    }
+
+    // Looks for a random top-left corner whose rock stays gap away from every other rock and
+    // clear of the ship, result in spotX/spotY. Each attempt only looks at nearby grid cells.
+    private boolean findAsteroidSpot(float radius, float gap) {
+        if (placementIndexStale || asteroids.count() - placementIndexedCount > PLACEMENT_REBUILD_BATCH) {
+            asteroidGrid.build(asteroids.x, asteroids.y, asteroids.radius, asteroids.count());
+            placementIndexedCount = asteroids.count();
+            placementIndexStale = false;
+        }
+
+        spotRadius = radius;
+        spotGap = gap;
+        float reach = ASTEROID_SIZE / 2f + radius + gap;
+        float shipCenterX = shipX + shipSize / 2;
+        float shipCenterY = shipY + shipSize / 2;
+        float shipClearance = SHIP_SAFE_DISTANCE + radius;
+
+        for (int attempt = 0; attempt < MAX_PLACEMENT_ATTEMPTS; attempt++) {
+            spotX = random.nextFloat() * (screenWidth - 2 * ASTEROID_SIZE) + ASTEROID_SIZE;
+            spotY = random.nextFloat() * (screenHeight - 2 * ASTEROID_SIZE) + ASTEROID_SIZE;
+            float centerX = spotX + radius;
+            float centerY = spotY + radius;
+
+            if (CollisionKernel.distanceSquared(centerX, centerY, shipCenterX, shipCenterY) < shipClearance * shipClearance) {
+                continue;
+            }
+            if (asteroidGrid.anyNear(centerX, centerY, reach, asteroidBlocksSpot)) {
+                continue;
+            }
+
+            // Rocks placed since the grid was built
+            boolean blocked = false;
+            for (int i = placementIndexedCount; i < asteroids.count() && !blocked; i++) {
+                blocked = asteroidBlocksSpot(i);
+            }
+            if (!blocked) return true;
+        }
+        return false;
+    }
+
+    private boolean asteroidBlocksSpot(int i) {
+        float minDistance = asteroids.radius[i] + spotRadius + spotGap;
+        return CollisionKernel.distanceSquared(spotX + spotRadius, spotY + spotRadius,
+                asteroids.x[i] + asteroids.radius[i], asteroids.y[i] + asteroids.radius[i]) < minDistance * minDistance;
+    }
+
+    private void splitRandomAsteroid() {
+        int count = asteroids.count();
+        if (count == 0 || count == asteroids.capacity()) return;
+
+        // First rock big enough to split, scanning from a random slot
+        int start = random.nextInt(count);
+        for (int k = 0; k < count; k++) {
+            int i = (start + k) % count;
+            if (asteroids.radius[i] >= MIN_SPLIT_RADIUS) {
+                splitAsteroid(i);
+                return;
+            }
+        }
+    }
+
+    private void splitAsteroid(int i) {
+        float radius = asteroids.radius[i] * SPLIT_RATIO;
+        float centerX = asteroids.x[i] + asteroids.radius[i];
+        float centerY = asteroids.y[i] + asteroids.radius[i];
+        float velocityX = asteroids.velocityX[i];
+        float velocityY = asteroids.velocityY[i];
+        float spin = asteroids.rotationSpeed[i];
+
+        // Fragments sit side by side across the parent's path and turn away from it by SPLIT_ANGLE
+        float speed = (float) Math.sqrt(velocityX * velocityX + velocityY * velocityY);
+        float normalX = speed > 0f ? -velocityY / speed : 1f;
+        float normalY = speed > 0f ? velocityX / speed : 0f;
+        float cos = SPLIT_COS;
+        float sin = SPLIT_SIN;
+
+        asteroids.remove(i);
+        placementIndexStale = true;
+        for (int side = -1; side <= 1; side += 2) {
+            float x = centerX + normalX * radius * side - radius;
+            float y = centerY + normalY * radius * side - radius;
+            float fragmentVelocityX = velocityX * cos - velocityY * sin * side;
+            float fragmentVelocityY = velocityX * sin * side + velocityY * cos;
+            asteroids.add(x, y, fragmentVelocityX, fragmentVelocityY, radius, -spin * side);
+        }
+    }
+
+    private void despawnFragmentsAtWalls() {
+        final float[] x = asteroids.x, y = asteroids.y, r = asteroids.radius;
+        for (int i = asteroids.count() - 1; i >= 0; i--) {
+            if (r[i] >= MIN_SPLIT_RADIUS) continue;
+
+            float size = 2 * r[i];
+            if (x[i] <= 0 || y[i] <= 0 || x[i] + size >= screenWidth || y[i] + size >= screenHeight) {
+                asteroids.remove(i);
+                placementIndexStale = true;
+            }
+        }
+    }
+
+    private float getRandomVelocity() {
+        float velocity = random.nextFloat() * (MAX_ASTEROID_SPEED - MIN_ASTEROID_SPEED) + MIN_ASTEROID_SPEED;
+        return random.nextBoolean() ? velocity : -velocity;
+    }
+
+    private void checkAsteroidCollisions() {
+        // Broad phase: only asteroids in neighbouring cells are tested against each other
+        asteroidGrid.build(asteroids.x, asteroids.y, asteroids.radius, asteroids.count());
+        candidatePairCount = asteroidGrid.visitPairs(asteroidContact);
+        placementIndexedCount = asteroids.count();
+        placementIndexStale = false;
+    }
+
+    private void resolveAsteroidContact(int i, int j) {
+        final float[] x = asteroids.x, y = asteroids.y;
+        final float[] px = asteroids.previousX, py = asteroids.previousY;
+        final float[] r = asteroids.radius, cr = asteroids.collisionRadius;
+
+        // Swept test over the tick, an end-of-tick overlap check alone would miss
+        // rocks that passed through each other and push tunnelled ones the wrong way
+        float impact = CollisionKernel.timeOfImpact(
+                px[i] + r[i], py[i] + r[i], x[i] - px[i], y[i] - py[i],
+                px[j] + r[j], py[j] + r[j], x[j] - px[j], y[j] - py[j],
+                cr[i] + cr[j]);
+        if (impact == CollisionKernel.NO_IMPACT) return;
+
+        if (impact > 0f) {
+            asteroids.resolveSweptContact(i, j, impact, stepSeconds);
+        } else {
+            // Already overlapping when the tick started
+            asteroids.resolveContact(i, j);
+        }
+    }
+
+    // Pooled, so fields are reset by set() instead of a constructor
+    private static class PointToken {
+        public int id;
+        public float x;
+        public float y;
+        public int value;
+        public float ageMs;
+        public int expiryTimer;
+
+        public void set(int id, float x, float y, int value) {
+            this.id = id;
+            this.x = x;
+            this.y = y;
+            this.value = value;
+            this.ageMs = 0;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.javaamse;
+
+/**
+ * Joystick samples handed from the UI thread to the game thread, averaged per tick.
+ */
+public final class JoystickInput {
+
+    // Running totals, the reader works out what is new since its last read
+    private static final class State {
+        boolean pressed;
+        float x;
+        float y;
+        double sumX;
+        double sumY;
+        long samples;
+    }
+
+    private final SnapshotBuffer<State> states = new SnapshotBuffer<>(State::new);
+
+    // Owned by the UI thread
+    private boolean pressed;
+    private float x;
+    private float y;
+    private double sumX;
+    private double sumY;
+    private long samples;
+
+    // Owned by the game thread
+    private double readSumX;
+    private double readSumY;
+    private long readSamples;
+    private boolean tickPressed;
+    private float tickX;
+    private float tickY;
+
+    // UI thread: one normalized offset, in order, then publish() once the event is consumed
+    public void addSample(float x, float y) {
+        pressed = true;
+        this.x = x;
+        this.y = y;
+        sumX += x;
+        sumY += y;
+        samples++;
+    }
+
+    public void release() {
+        pressed = false;
+        x = 0;
+        y = 0;
+    }
+
+    public void publish() {
+        State state = states.getWriteBuffer();
+        state.pressed = pressed;
+        state.x = x;
+        state.y = y;
+        state.sumX = sumX;
+        state.sumY = sumY;
+        state.samples = samples;
+        states.publish();
+    }
+
+    // Game thread, once per tick: the offset the tick is simulated with
+    public void consume() {
+        State state = states.acquireLatest();
+        long newSamples = state.samples - readSamples;
+
+        if (newSamples == 1) {
+            // Exact, no rounding through the running sums
+            tickPressed = true;
+            tickX = state.x;
+            tickY = state.y;
+        } else if (newSamples > 1) {
+            // The stick moved during the tick, even if it was let go since
+            tickPressed = true;
+            tickX = (float) ((state.sumX - readSumX) / newSamples);
+            tickY = (float) ((state.sumY - readSumY) / newSamples);
+        } else {
+            // Held still or released
+            tickPressed = state.pressed;
+            tickX = state.x;
+            tickY = state.y;
+        }
+
+        readSumX = state.sumX;
+        readSumY = state.sumY;
+        readSamples = state.samples;
+    }
+
+    public boolean isPressed() {
+        return tickPressed;
+    }
+
+    public float getX() {
+        return tickX;
+    }
+
+    public float getY() {
+        return tickY;
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.javaamse;
+
+import java.util.Arrays;
+
+/**
+ * Bitmap of blocked cells over a rectangle, free cells picked by rank.
+ */
+public final class OccupancyMap {
+
+    private final float left;
+    private final float top;
+    private final float width;
+    private final float height;
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    private final long[] blocked;
+
+    public OccupancyMap(float left, float top, float width, float height, float cellSize) {
+        this.left = left;
+        this.top = top;
+        this.width = width;
+        this.height = height;
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.blocked = new long[(columns * rows + 63) >>> 6];
+    }
+
+    public int cellCount() {
+        return columns * rows;
+    }
+
+    public void clear() {
+        Arrays.fill(blocked, 0L);
+    }
+
+    // Blocks every cell that comes closer than radius to (x, y)
+    public void markCircle(float x, float y, float radius) {
+        int firstColumn = Math.max(0, (int) Math.floor((x - radius - left) / cellSize));
+        int lastColumn = Math.min(columns - 1, (int) Math.floor((x + radius - left) / cellSize));
+        int firstRow = Math.max(0, (int) Math.floor((y - radius - top) / cellSize));
+        int lastRow = Math.min(rows - 1, (int) Math.floor((y + radius - top) / cellSize));
+        float radiusSquared = radius * radius;
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            // Distance from the circle center to the nearest point of the cell
+            float cellTop = top + row * cellSize;
+            float dy = Math.max(0f, Math.max(cellTop - y, y - (cellTop + cellSize)));
+
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                float cellLeft = left + column * cellSize;
+                float dx = Math.max(0f, Math.max(cellLeft - x, x - (cellLeft + cellSize)));
+                if (dx * dx + dy * dy < radiusSquared) {
+                    int cell = row * columns + column;
+                    blocked[cell >>> 6] |= 1L << cell;
+                }
+            }
+        }
+    }
+
+    public boolean isBlocked(int cell) {
+        return (blocked[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    public int freeCount() {
+        return cellCount() - blockedCount();
+    }
+
+    // Cell index of the n-th free cell in row-major order, or -1 past the last one
+    public int nthFreeCell(int n) {
+        int cells = cellCount();
+        for (int word = 0; word < blocked.length; word++) {
+            long free = ~blocked[word];
+            int base = word << 6;
+            if (cells - base < 64) {
+                free &= (1L << (cells - base)) - 1;
+            }
+
+            int count = Long.bitCount(free);
+            if (n < count) {
+                for (int i = 0; i < n; i++) {
+                    free &= free - 1;
+                }
+                return base + Long.numberOfTrailingZeros(free);
+            }
+            n -= count;
+        }
+        return -1;
+    }
+
+    // Bounds of a cell, clipped to the mapped rectangle
+    public float cellLeft(int cell) {
+        return left + (cell % columns) * cellSize;
+    }
+
+    public float cellTop(int cell) {
+        return top + (cell / columns) * cellSize;
+    }
+
+    public float cellRight(int cell) {
+        return Math.min(cellLeft(cell) + cellSize, left + width);
+    }
+
+    public float cellBottom(int cell) {
+        return Math.min(cellTop(cell) + cellSize, top + height);
+    }
+
+    private int blockedCount() {
+        int count = 0;
+        for (long word : blocked) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
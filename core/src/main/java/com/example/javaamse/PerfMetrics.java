@@ -0,0 +1,184 @@
+package com.example.javaamse;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Frame and tick timings recorded on the UI thread and summed up into report rows.
+ */
+public final class PerfMetrics {
+
+    public static final int REPORT_INTERVAL_MS = 500;
+    public static final int MAX_ROWS = 1200; // 10 minutes of reports, the oldest are dropped
+    private static final int WINDOW = 120; // Samples kept per report, a 500 ms report at up to 240 Hz
+
+    // Report row columns
+    public static final int ELAPSED_MS = 0;
+    public static final int FRAMES = 1;
+    public static final int FRAME_P50_MS = 2;
+    public static final int FRAME_P95_MS = 3;
+    public static final int FRAME_P99_MS = 4;
+    public static final int FRAME_MAX_MS = 5;
+    public static final int TICK_P50_MS = 6;
+    public static final int TICK_P95_MS = 7;
+    public static final int TICK_MAX_MS = 8;
+    public static final int TICK_OVERRUNS = 9;
+    public static final int WAKE_LATE_MAX_MS = 10;
+    public static final int COLLISION_PAIRS = 11;
+    public static final int ASTEROIDS = 12;
+    public static final int TOKENS = 13;
+    public static final int EFFECTS = 14;
+    public static final int GC_COUNT = 15;
+    private static final int COLUMNS = 16;
+
+    private static final String CSV_HEADER = "elapsed_ms,frames,frame_p50_ms,frame_p95_ms,frame_p99_ms,frame_max_ms,"
+            + "tick_p50_ms,tick_p95_ms,tick_max_ms,tick_overruns,wake_late_max_ms,"
+            + "collision_pairs,asteroids,tokens,effects,gc_count";
+
+    // Samples since the last report
+    private final long[] frameNanos = new long[WINDOW];
+    private final long[] tickNanos = new long[WINDOW];
+    private final long[] sorted = new long[WINDOW];
+    private int frameSamples = 0;
+    private int tickSamples = 0;
+    private int framesSinceReport = 0;
+    private long maxWakeLatenessNanos = 0;
+
+    private long startNanos = -1;
+    private long previousFrameNanos = -1;
+    private long lastReportNanos;
+    private long lastTick = -1;
+    private GameSnapshot lastSnapshot;
+
+    // Report rows, a ring of MAX_ROWS
+    private final float[] rows = new float[MAX_ROWS * COLUMNS];
+    private int firstRow = 0;
+    private int rowCount = 0;
+
+    // Called once per rendered frame with its vsync time, returns true when a report is due
+    public boolean onFrame(long frameTimeNanos, GameSnapshot snapshot) {
+        if (startNanos < 0) {
+            startNanos = frameTimeNanos;
+            lastReportNanos = frameTimeNanos;
+        }
+        if (previousFrameNanos >= 0) {
+            frameNanos[frameSamples % WINDOW] = frameTimeNanos - previousFrameNanos;
+            frameSamples++;
+        }
+        previousFrameNanos = frameTimeNanos;
+        framesSinceReport++;
+
+        // Several frames can show the same snapshot, its ticks only count once
+        if (snapshot.tick != lastTick) {
+            lastTick = snapshot.tick;
+            tickNanos[tickSamples % WINDOW] = snapshot.tickNanos;
+            tickSamples++;
+            maxWakeLatenessNanos = Math.max(maxWakeLatenessNanos, snapshot.wakeLatenessNanos);
+        }
+        lastSnapshot = snapshot;
+
+        return frameTimeNanos - lastReportNanos >= REPORT_INTERVAL_MS * 1_000_000L;
+    }
+
+    // After a pause: the next frame starts a new interval instead of counting the pause as a frame
+    public void resetFrameClock() {
+        previousFrameNanos = -1;
+    }
+
+    // Closes the current report row, gcCount is the runtime's collection count so far
+    public void report(long gcCount) {
+        if (lastSnapshot == null) return;
+
+        int row;
+        if (rowCount < MAX_ROWS) {
+            row = (firstRow + rowCount++) % MAX_ROWS;
+        } else {
+            row = firstRow;
+            firstRow = (firstRow + 1) % MAX_ROWS;
+        }
+        int base = row * COLUMNS;
+        int frames = Math.min(frameSamples, WINDOW);
+        int ticks = Math.min(tickSamples, WINDOW);
+
+        rows[base + ELAPSED_MS] = (previousFrameNanos - startNanos) / 1_000_000f;
+        rows[base + FRAMES] = framesSinceReport;
+        rows[base + FRAME_P50_MS] = percentileMs(frameNanos, frames, 0.50f);
+        rows[base + FRAME_P95_MS] = percentileMs(frameNanos, frames, 0.95f);
+        rows[base + FRAME_P99_MS] = percentileMs(frameNanos, frames, 0.99f);
+        rows[base + FRAME_MAX_MS] = percentileMs(frameNanos, frames, 1f);
+        rows[base + TICK_P50_MS] = percentileMs(tickNanos, ticks, 0.50f);
+        rows[base + TICK_P95_MS] = percentileMs(tickNanos, ticks, 0.95f);
+        rows[base + TICK_MAX_MS] = percentileMs(tickNanos, ticks, 1f);
+        rows[base + TICK_OVERRUNS] = lastSnapshot.tickOverruns;
+        rows[base + WAKE_LATE_MAX_MS] = maxWakeLatenessNanos / 1_000_000f;
+        rows[base + COLLISION_PAIRS] = lastSnapshot.candidatePairCount;
+        rows[base + ASTEROIDS] = lastSnapshot.asteroidCount;
+        rows[base + TOKENS] = lastSnapshot.tokenCount;
+        rows[base + EFFECTS] = lastSnapshot.effectCount;
+        rows[base + GC_COUNT] = gcCount;
+
+        frameSamples = 0;
+        tickSamples = 0;
+        framesSinceReport = 0;
+        maxWakeLatenessNanos = 0;
+        lastReportNanos = previousFrameNanos;
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    // Column value of a report row, row 0 being the oldest one kept
+    public float value(int row, int column) {
+        return rows[((firstRow + row) % MAX_ROWS) * COLUMNS + column];
+    }
+
+    public float latest(int column) {
+        return rowCount == 0 ? 0f : value(rowCount - 1, column);
+    }
+
+    // Debug HUD text for the latest report, appended to a reused builder
+    public void formatHud(StringBuilder out) {
+        out.append("frame p50/p95/p99/max ")
+                .append(round(latest(FRAME_P50_MS))).append('/')
+                .append(round(latest(FRAME_P95_MS))).append('/')
+                .append(round(latest(FRAME_P99_MS))).append('/')
+                .append(round(latest(FRAME_MAX_MS))).append(" ms\n");
+        out.append("tick p50/p95/max ")
+                .append(round(latest(TICK_P50_MS))).append('/')
+                .append(round(latest(TICK_P95_MS))).append('/')
+                .append(round(latest(TICK_MAX_MS))).append(" ms, overruns ")
+                .append((long) latest(TICK_OVERRUNS)).append('\n');
+        out.append("late wake ").append(round(latest(WAKE_LATE_MAX_MS))).append(" ms, pairs ")
+                .append((int) latest(COLLISION_PAIRS)).append('\n');
+        out.append("entities ").append((int) (latest(ASTEROIDS) + latest(TOKENS) + latest(EFFECTS)))
+                .append(", gc ").append((long) latest(GC_COUNT));
+    }
+
+    public void writeCsv(Writer out) throws IOException {
+        out.write(CSV_HEADER);
+        out.write('\n');
+        for (int row = 0; row < rowCount; row++) {
+            for (int column = 0; column < COLUMNS; column++) {
+                if (column > 0) out.write(',');
+                out.write(Float.toString(value(row, column)));
+            }
+            out.write('\n');
+        }
+    }
+
+    // Nearest-rank percentile of the first count samples, in milliseconds
+    private float percentileMs(long[] samples, int count, float percentile) {
+        if (count == 0) return 0f;
+        System.arraycopy(samples, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        int rank = (int) Math.ceil(percentile * count);
+        return sorted[Math.max(0, rank - 1)] / 1_000_000f;
+    }
+
+    // Hundredths of a millisecond are plenty for the HUD
+    private static float round(float ms) {
+        return Math.round(ms * 100f) / 100f;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.javaamse;
+
+import java.util.function.Supplier;
+
+/**
+ * Reusable instances, acquire() only calls the factory when all are in use. Single thread only.
+ */
+public final class Pool<T> {
+
+    private final Supplier<T> factory;
+    private final Object[] free;
+    private int freeCount = 0;
+    private int createdCount = 0;
+
+    public Pool(Supplier<T> factory, int capacity) {
+        this.factory = factory;
+        this.free = new Object[capacity];
+        for (int i = 0; i < capacity; i++) {
+            free[freeCount++] = create();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if (freeCount == 0) return create();
+
+        T item = (T) free[--freeCount];
+        free[freeCount] = null;
+        return item;
+    }
+
+    // Items beyond the pool's capacity are left to the garbage collector
+    public void release(T item) {
+        if (freeCount < free.length) {
+            free[freeCount++] = item;
+        }
+    }
+
+    public int freeCount() {
+        return freeCount;
+    }
+
+    // Total instances made by the factory, stays at the capacity when nothing leaks
+    public int createdCount() {
+        return createdCount;
+    }
+
+    private T create() {
+        createdCount++;
+        return factory.get();
+    }
+}
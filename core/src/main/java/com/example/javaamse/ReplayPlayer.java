@@ -0,0 +1,104 @@
+package com.example.javaamse;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Re-simulates a replay written by ReplayRecorder on the calling thread.
+ */
+public final class ReplayPlayer {
+
+    public static final class Result {
+        public final GameWorld world;
+        public final long ticks;
+        public final long recordedChecksum;
+
+        Result(GameWorld world, long ticks, long recordedChecksum) {
+            this.world = world;
+            this.ticks = ticks;
+            this.recordedChecksum = recordedChecksum;
+        }
+
+        // True when the re-simulated run ended in exactly the recorded state
+        public boolean matches() {
+            return world.stateChecksum() == recordedChecksum;
+        }
+    }
+
+    private static final GameWorld.Listener SILENT = new GameWorld.Listener() {
+        @Override
+        public void onTokenCollected(float x, float y, int value) {
+        }
+
+        @Override
+        public void onShipDestroyed(float x, float y, int score) {
+        }
+
+        @Override
+        public void onGameOver(int score) {
+        }
+    };
+
+    private ReplayPlayer() {
+    }
+
+    public static Result play(InputStream stream) throws IOException {
+        return play(stream, SILENT);
+    }
+
+    public static Result play(InputStream stream, GameWorld.Listener listener) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != ReplayRecorder.MAGIC) {
+            throw new IOException("Not a replay");
+        }
+        int version = in.readUnsignedByte();
+        if (version != ReplayRecorder.VERSION) {
+            throw new IOException("Unsupported replay version " + version);
+        }
+
+        int screenWidth = in.readInt();
+        int screenHeight = in.readInt();
+        int asteroidCount = in.readInt();
+        float asteroidSpeedFactor = in.readFloat();
+        float tieSpeed = in.readFloat();
+        boolean useGyroscope = in.readBoolean();
+        boolean endlessMode = in.readBoolean();
+        long seed = in.readLong();
+        float shipSize = in.readFloat();
+        float tokenSize = in.readFloat();
+        GameWorld world = new GameWorld(screenWidth, screenHeight, asteroidCount, asteroidSpeedFactor, tieSpeed,
+                useGyroscope, endlessMode, seed, shipSize, tokenSize, listener);
+
+        // Inputs carry over from tick to tick until the record changes them
+        float deltaSeconds = 0;
+        float joystickX = 0;
+        float joystickY = 0;
+        long ticks = 0;
+        while (true) {
+            int flags = in.readUnsignedByte();
+            if (flags == ReplayRecorder.END_OF_TICKS) break;
+
+            if ((flags & ReplayRecorder.STEP_CHANGED) != 0) {
+                deltaSeconds = in.readFloat();
+            }
+            if ((flags & ReplayRecorder.JOYSTICK_CHANGED) != 0) {
+                joystickX = in.readFloat();
+                joystickY = in.readFloat();
+            }
+            if ((flags & ReplayRecorder.TILT_CHANGED) != 0) {
+                world.setTilt(in.readFloat(), in.readFloat());
+            }
+            world.setJoystick((flags & ReplayRecorder.JOYSTICK_PRESSED) != 0, joystickX, joystickY);
+            world.step(deltaSeconds);
+            ticks++;
+        }
+
+        long recordedTicks = in.readLong();
+        if (recordedTicks != ticks) {
+            throw new IOException("Replay has " + ticks + " ticks, expected " + recordedTicks);
+        }
+        return new Result(world, ticks, in.readLong());
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.javaamse;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the settings, seed and per-tick input of a run to a binary replay.
+ */
+public final class ReplayRecorder implements GameWorld.InputRecorder {
+
+    // Big-endian: MAGIC, VERSION, settings, then per tick a flag byte and the inputs whose flag is set;
+    // END_OF_TICKS, the tick count and the final state checksum close it
+    static final int MAGIC = 0x414D5352; // "AMSR"
+    static final int VERSION = 1;
+
+    // Tick flags
+    static final int JOYSTICK_PRESSED = 1;
+    static final int STEP_CHANGED = 1 << 1;
+    static final int JOYSTICK_CHANGED = 1 << 2;
+    static final int TILT_CHANGED = 1 << 3;
+    static final int END_OF_TICKS = 1 << 7;
+
+    private final DataOutputStream out;
+    private boolean failed = false;
+    private long ticks = 0;
+
+    // Last written values, NaN so the first tick writes everything
+    private float deltaSeconds = Float.NaN;
+    private float joystickX = Float.NaN;
+    private float joystickY = Float.NaN;
+    private float tiltX = Float.NaN;
+    private float tiltY = Float.NaN;
+
+    public ReplayRecorder(OutputStream stream, int screenWidth, int screenHeight, int asteroidCount,
+                          float asteroidSpeedFactor, float tieSpeed, boolean useGyroscope, boolean endlessMode,
+                          long seed, float shipSize, float tokenSize) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(screenWidth);
+        out.writeInt(screenHeight);
+        out.writeInt(asteroidCount);
+        out.writeFloat(asteroidSpeedFactor);
+        out.writeFloat(tieSpeed);
+        out.writeBoolean(useGyroscope);
+        out.writeBoolean(endlessMode);
+        out.writeLong(seed);
+        out.writeFloat(shipSize);
+        out.writeFloat(tokenSize);
+    }
+
+    @Override
+    public void record(float deltaSeconds, boolean joystickPressed, float joystickX, float joystickY,
+                       float tiltX, float tiltY) {
+        if (failed) return;
+
+        // Bit comparisons, so -0f and NaN inputs round-trip as they were
+        boolean stepChanged = Float.floatToRawIntBits(deltaSeconds) != Float.floatToRawIntBits(this.deltaSeconds);
+        boolean joystickChanged = Float.floatToRawIntBits(joystickX) != Float.floatToRawIntBits(this.joystickX)
+                || Float.floatToRawIntBits(joystickY) != Float.floatToRawIntBits(this.joystickY);
+        boolean tiltChanged = Float.floatToRawIntBits(tiltX) != Float.floatToRawIntBits(this.tiltX)
+                || Float.floatToRawIntBits(tiltY) != Float.floatToRawIntBits(this.tiltY);
+
+        int flags = (joystickPressed ? JOYSTICK_PRESSED : 0)
+                | (stepChanged ? STEP_CHANGED : 0)
+                | (joystickChanged ? JOYSTICK_CHANGED : 0)
+                | (tiltChanged ? TILT_CHANGED : 0);
+        try {
+            out.writeByte(flags);
+            if (stepChanged) {
+                out.writeFloat(deltaSeconds);
+                this.deltaSeconds = deltaSeconds;
+            }
+            if (joystickChanged) {
+                out.writeFloat(joystickX);
+                out.writeFloat(joystickY);
+                this.joystickX = joystickX;
+                this.joystickY = joystickY;
+            }
+            if (tiltChanged) {
+                out.writeFloat(tiltX);
+                out.writeFloat(tiltY);
+                this.tiltX = tiltX;
+                this.tiltY = tiltY;
+            }
+            ticks++;
+        } catch (IOException e) {
+            // A broken replay must never stop the game, just stop recording
+            failed = true;
+        }
+    }
+
+    // Seals the replay with the world's final state, once the game thread has stopped
+    public void finish(GameWorld world) throws IOException {
+        try {
+            if (failed) return;
+            out.writeByte(END_OF_TICKS);
+            out.writeLong(ticks);
+            out.writeLong(world.stateChecksum());
+        } finally {
+            out.close();
+        }
+    }
+}
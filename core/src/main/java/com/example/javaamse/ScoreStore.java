@@ -0,0 +1,275 @@
+package com.example.javaamse;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Every finished run in an append-only log, read and written on the store's own thread.
+ */
+public final class ScoreStore {
+
+    // Big-endian: MAGIC, VERSION, then fixed-size run records; a torn last record is dropped on load
+    static final int MAGIC = 0x414D5343; // "AMSC"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 4 + 1;
+    static final int RECORD_BYTES = 8 + 8 + 4 + 4 + 1 + 4;
+
+    // Difficulties, one leaderboard each
+    public static final int EASY = 0;
+    public static final int NORMAL = 1;
+    public static final int HARD = 2;
+    public static final int ENDLESS = 3;
+    public static final int DIFFICULTIES = 4;
+
+    public static final int TOP_RUNS = 10; // Runs cached per difficulty
+
+    public static final class Run {
+        public final long timestamp; // Wall clock, milliseconds
+        public final long seed;
+        public final int score;
+        public final int durationMs;
+        public final int difficulty;
+        public final int tokensCollected;
+
+        public Run(long timestamp, long seed, int score, int durationMs, int difficulty, int tokensCollected) {
+            this.timestamp = timestamp;
+            this.seed = seed;
+            this.score = score;
+            this.durationMs = durationMs;
+            this.difficulty = difficulty;
+            this.tokensCollected = tokensCollected;
+        }
+    }
+
+    // Top runs and run counts as of one moment, never modified once published
+    public static final class Scoreboard {
+        private final Run[][] topRuns;
+        private final int[] runCounts;
+
+        private Scoreboard(Run[][] topRuns, int[] runCounts) {
+            this.topRuns = topRuns;
+            this.runCounts = runCounts;
+        }
+
+        // Best first. Shared, not to be modified.
+        public Run[] getTopRuns(int difficulty) {
+            return topRuns[difficulty];
+        }
+
+        public int getBestScore(int difficulty) {
+            Run[] runs = topRuns[difficulty];
+            return runs.length > 0 ? runs[0].score : 0;
+        }
+
+        public int getRunCount(int difficulty) {
+            return runCounts[difficulty];
+        }
+    }
+
+    // Called on the store's thread
+    public interface Listener {
+        void onLoaded(ScoreStore store);
+    }
+
+    // Runs a new log starts with, such as best scores kept elsewhere before. Called on the store's thread.
+    public interface Importer {
+        Run[] importRuns();
+    }
+
+    private static final Run[] NO_RUNS = new Run[0];
+
+    private final Supplier<File> location;
+    private final Executor executor;
+    private File file; // Resolved on the store's thread, finding it may touch the disk
+    private final Importer importer;
+
+    // Written on the store's thread, replaced as a whole so counts and runs always match
+    private volatile Scoreboard scoreboard;
+    private volatile boolean loaded = false;
+    private boolean writable = true; // Store's thread only
+
+    public ScoreStore(Supplier<File> location, Importer importer) {
+        this(location, Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "ScoreStore");
+            thread.setDaemon(true);
+            return thread;
+        }), importer);
+    }
+
+    // The executor must run tasks one at a time, in order. The importer may be null.
+    public ScoreStore(Supplier<File> location, Executor executor, Importer importer) {
+        this.location = location;
+        this.executor = executor;
+        this.importer = importer;
+        Run[][] topRuns = new Run[DIFFICULTIES][];
+        Arrays.fill(topRuns, NO_RUNS);
+        scoreboard = new Scoreboard(topRuns, new int[DIFFICULTIES]);
+        executor.execute(this::load);
+    }
+
+    public static int difficultyOf(int asteroidCount, boolean endlessMode) {
+        if (endlessMode) return ENDLESS;
+        if (asteroidCount == 3) return EASY;
+        if (asteroidCount == 4) return NORMAL;
+        return HARD;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Once the log is loaded, and after the runs recorded before this call are in the cache
+    public void whenLoaded(Listener listener) {
+        executor.execute(() -> listener.onLoaded(this));
+    }
+
+    // Empty until the log is loaded. Read several values from one board to have them match.
+    public Scoreboard getScoreboard() {
+        return scoreboard;
+    }
+
+    public Run[] getTopRuns(int difficulty) {
+        return scoreboard.getTopRuns(difficulty);
+    }
+
+    public int getBestScore(int difficulty) {
+        return scoreboard.getBestScore(difficulty);
+    }
+
+    public int getRunCount(int difficulty) {
+        return scoreboard.getRunCount(difficulty);
+    }
+
+    // Returns at once, the run is appended to the log on the store's thread
+    public void record(Run run) {
+        executor.execute(() -> {
+            append(run);
+            add(run);
+        });
+    }
+
+    private void load() {
+        file = location.get();
+        long validBytes = -1; // Header and whole records, -1 unless the file starts with our header
+        if (file.length() > 0) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                if (in.readInt() == MAGIC && in.readUnsignedByte() == VERSION) {
+                    validBytes = HEADER_BYTES;
+                    while (true) {
+                        add(readRun(in));
+                        validBytes += RECORD_BYTES;
+                    }
+                }
+            } catch (EOFException e) {
+                // End of the log, possibly in the middle of a torn record
+            } catch (IOException e) {
+                // Unreadable for now, leave the file alone rather than lose it
+                writable = false;
+            }
+        }
+
+        try {
+            if (!writable) {
+                // Read-only for this session
+            } else if (validBytes < 0) {
+                // A log from another version or a damaged one is kept aside, never overwritten
+                if (file.length() > 0 && !file.renameTo(new File(file.getPath() + "." + System.currentTimeMillis() + ".old"))) {
+                    writable = false;
+                } else {
+                    startLog();
+                }
+            } else if (file.length() != validBytes) {
+                // Drop a torn record
+                try (RandomAccessFile log = new RandomAccessFile(file, "rw")) {
+                    log.setLength(validBytes);
+                }
+            }
+        } catch (IOException e) {
+            // Appending after an unknown tail would damage the log, the cache still works for this session
+            writable = false;
+        }
+        loaded = true;
+    }
+
+    // A new log, with the imported runs
+    private void startLog() throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+        }
+        if (importer != null) {
+            for (Run run : importer.importRuns()) {
+                append(run);
+                add(run);
+            }
+        }
+    }
+
+    private static Run readRun(DataInputStream in) throws IOException {
+        long timestamp = in.readLong();
+        long seed = in.readLong();
+        int score = in.readInt();
+        int durationMs = in.readInt();
+        int difficulty = in.readUnsignedByte();
+        int tokensCollected = in.readInt();
+        return new Run(timestamp, seed, score, durationMs, difficulty, tokensCollected);
+    }
+
+    private void append(Run run) {
+        if (!writable) return;
+        try (FileOutputStream stream = new FileOutputStream(file, true)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, RECORD_BYTES));
+            out.writeLong(run.timestamp);
+            out.writeLong(run.seed);
+            out.writeInt(run.score);
+            out.writeInt(run.durationMs);
+            out.writeByte(run.difficulty);
+            out.writeInt(run.tokensCollected);
+            out.flush();
+            // On disk before the next run starts, a crash then loses nothing
+            stream.getFD().sync();
+        } catch (IOException e) {
+            // The run still counts for this session
+        }
+    }
+
+    // Inserts into the difficulty's board after the runs with an equal or better score
+    private void add(Run run) {
+        if (run.difficulty < 0 || run.difficulty >= DIFFICULTIES) return;
+
+        Scoreboard current = scoreboard;
+        int[] counts = current.runCounts.clone();
+        counts[run.difficulty]++;
+        Run[][] topRuns = current.topRuns;
+
+        Run[] runs = topRuns[run.difficulty];
+        int position = runs.length;
+        while (position > 0 && runs[position - 1].score < run.score) {
+            position--;
+        }
+        if (position < TOP_RUNS) {
+            Run[] updated = new Run[Math.min(runs.length + 1, TOP_RUNS)];
+            System.arraycopy(runs, 0, updated, 0, position);
+            updated[position] = run;
+            System.arraycopy(runs, position, updated, position + 1, updated.length - position - 1);
+
+            topRuns = topRuns.clone();
+            topRuns[run.difficulty] = updated;
+        }
+
+        // One volatile write publishes the counts and the runs together
+        scoreboard = new Scoreboard(topRuns, counts);
+    }
+}
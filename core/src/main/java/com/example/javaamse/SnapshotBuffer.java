@@ -0,0 +1,50 @@
+package com.example.javaamse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free triple buffer between one writer thread and one reader thread.
+ */
+public class SnapshotBuffer<T> {
+
+    private static final int INDEX_MASK = 0b011;
+    private static final int FRESH_BIT = 0b100;
+
+    private final Object[] slots = new Object[3];
+
+    // Index of the shared middle slot, plus a flag telling whether it holds unread data
+    private final AtomicInteger middle = new AtomicInteger(1);
+
+    // Owned by the writer
+    private int back = 2;
+
+    // Owned by the reader
+    private int front = 0;
+
+    public SnapshotBuffer(Supplier<T> factory) {
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = factory.get();
+        }
+    }
+
+    // Writer side: the slot to fill before calling publish()
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) slots[back];
+    }
+
+    // Writer side: hand the filled slot over and take the previous middle slot back
+    public void publish() {
+        back = middle.getAndSet(back | FRESH_BIT) & INDEX_MASK;
+    }
+
+    // Reader side: the latest published slot, stays valid until the next call
+    @SuppressWarnings("unchecked")
+    public T acquireLatest() {
+        if ((middle.get() & FRESH_BIT) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return (T) slots[front];
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.javaamse;
+
+/**
+ * Smooths tilt sensor events into the x and y of gravity, optionally with the gyroscope.
+ */
+public final class TiltFilter {
+
+    public static final int LOW_PASS = 0;
+    public static final int COMPLEMENTARY = 1;
+
+    private final int mode;
+    private final float timeConstantSeconds;
+
+    // Gravity estimate, device frame
+    private float x;
+    private float y;
+    private float z;
+    private boolean initialized = false;
+
+    private long lastGravityNanos;
+    private long lastRotationNanos = -1;
+
+    public TiltFilter(int mode, float timeConstantSeconds) {
+        this.mode = mode;
+        this.timeConstantSeconds = timeConstantSeconds;
+    }
+
+    // Gravity or accelerometer sample, in m/s²
+    public void onGravity(long timestampNanos, float gravityX, float gravityY, float gravityZ) {
+        if (!initialized) {
+            x = gravityX;
+            y = gravityY;
+            z = gravityZ;
+            lastGravityNanos = timestampNanos;
+            initialized = true;
+            return;
+        }
+
+        // Exponential smoothing with the sample's actual interval, not a fixed rate
+        float dt = Math.max(0f, (timestampNanos - lastGravityNanos) / 1_000_000_000f);
+        lastGravityNanos = timestampNanos;
+        float blend = dt / (timeConstantSeconds + dt);
+        x += (gravityX - x) * blend;
+        y += (gravityY - y) * blend;
+        z += (gravityZ - z) * blend;
+    }
+
+    // Gyroscope sample, in rad/s around the device axes. Ignored in LOW_PASS mode.
+    public void onRotationRate(long timestampNanos, float rateX, float rateY, float rateZ) {
+        if (mode != COMPLEMENTARY || !initialized) {
+            lastRotationNanos = timestampNanos;
+            return;
+        }
+        if (lastRotationNanos < 0) {
+            lastRotationNanos = timestampNanos;
+            return;
+        }
+
+        float dt = Math.max(0f, (timestampNanos - lastRotationNanos) / 1_000_000_000f);
+        lastRotationNanos = timestampNanos;
+
+        // The device turns by rate * dt, so gravity turns the other way in its frame: g' = g - (rate x g) dt
+        float turnX = (rateY * z - rateZ * y) * dt;
+        float turnY = (rateZ * x - rateX * z) * dt;
+        float turnZ = (rateX * y - rateY * x) * dt;
+        x -= turnX;
+        y -= turnY;
+        z -= turnZ;
+    }
+
+    public boolean hasValue() {
+        return initialized;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.javaamse;
+
+/**
+ * Picks the tilt sensors' sampling period and report latency from the ship's movement.
+ */
+public final class TiltSampling {
+
+    public static final int ACTIVE = 0;
+    public static final int IDLE = 1;
+    public static final int STOPPED = 2;
+
+    public static final int IDLE_AFTER_MS = 1000;
+    private static final int IDLE_TICKS_PER_SAMPLE = 4;
+    private static final int IDLE_REPORT_LATENCY_MS = 100;
+    private static final float STILL_DISTANCE = 0.5f; // pixels
+
+    private int tickMillis;
+
+    private int mode = ACTIVE;
+    private boolean stopped = false;
+    private float lastShipX = Float.NaN;
+    private float lastShipY = Float.NaN;
+    private long stillSinceNanos;
+
+    public TiltSampling(int tickMillis) {
+        this.tickMillis = tickMillis;
+    }
+
+    public int mode() {
+        return mode;
+    }
+
+    public int samplingPeriodUs() {
+        return mode == IDLE ? tickMillis * IDLE_TICKS_PER_SAMPLE * 1000 : tickMillis * 1000 / 2;
+    }
+
+    public int maxReportLatencyUs() {
+        return mode == IDLE ? IDLE_REPORT_LATENCY_MS * 1000 : tickMillis * 1000;
+    }
+
+    // Longest a tilt can wait in the sensor before it is reported: one period, then the batching latency.
+    // In IDLE that is 4 ticks plus 100 ms, 164 ms at 60 Hz, for the first tilt after standing still.
+    public int wakeUpDelayMs() {
+        return (samplingPeriodUs() + maxReportLatencyUs()) / 1000;
+    }
+
+    // Game over or paused: nothing reads the tilt, sensors go off until resume()
+    public boolean stop() {
+        stopped = true;
+        return setMode(STOPPED);
+    }
+
+    public boolean resume() {
+        stopped = false;
+        lastShipX = Float.NaN;
+        return setMode(ACTIVE);
+    }
+
+    // Called once per frame with the ship position and the game's current tick,
+    // returns true when the sensors need registering again
+    public boolean update(long nowNanos, float shipX, float shipY, int tickMillis) {
+        boolean tickChanged = tickMillis != this.tickMillis;
+        this.tickMillis = tickMillis;
+        if (stopped) return false;
+
+        float moveX = shipX - lastShipX;
+        float moveY = shipY - lastShipY;
+        // Written so the NaN of the first frame counts as a move
+        boolean moved = !(moveX * moveX + moveY * moveY <= STILL_DISTANCE * STILL_DISTANCE);
+        lastShipX = shipX;
+        lastShipY = shipY;
+
+        if (moved) {
+            stillSinceNanos = nowNanos;
+            return setMode(ACTIVE) || tickChanged;
+        }
+        if (nowNanos - stillSinceNanos >= IDLE_AFTER_MS * 1_000_000L) {
+            return setMode(IDLE) || tickChanged;
+        }
+        return tickChanged;
+    }
+
+    private boolean setMode(int mode) {
+        if (this.mode == mode) return false;
+        this.mode = mode;
+        return true;
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.javaamse;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timer wheel, time only moves when advance() is called.
+ */
+public final class TimerWheel {
+
+    public interface Handler {
+        void onTimer(int event, int payload);
+    }
+
+    public static final int NO_TIMER = -1;
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+    private static final int NIL = -1;
+
+    // Timer handles pack a generation above the index, so a stale handle can't cancel a reused timer
+    private static final int INDEX_BITS = 16;
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    private static final int GENERATION_MASK = Integer.MAX_VALUE >>> INDEX_BITS;
+
+    private final Handler handler;
+    private final int[] slotHeads = new int[LEVELS * SLOTS];
+
+    private final int[] next;
+    private final int[] previous;
+    private final int[] slot;
+    private final int[] generation;
+    private final long[] expiry;
+    private final int[] event;
+    private final int[] payload;
+
+    private int freeHead;
+    private int activeCount = 0;
+    private long now = 0;
+
+    public TimerWheel(int capacity, Handler handler) {
+        this.handler = handler;
+        next = new int[capacity];
+        previous = new int[capacity];
+        slot = new int[capacity];
+        generation = new int[capacity];
+        expiry = new long[capacity];
+        event = new int[capacity];
+        payload = new int[capacity];
+        Arrays.fill(slot, NIL);
+        clear();
+    }
+
+    // Drops every pending timer, handles given out before stay invalid
+    public void clear() {
+        Arrays.fill(slotHeads, NIL);
+        for (int i = 0; i < next.length; i++) {
+            next[i] = i + 1 < next.length ? i + 1 : NIL;
+            if (slot[i] != NIL) {
+                generation[i] = (generation[i] + 1) & GENERATION_MASK;
+                slot[i] = NIL;
+            }
+        }
+        freeHead = next.length > 0 ? 0 : NIL;
+        activeCount = 0;
+    }
+
+    // clear() and back to time zero, so timers fire in the same order as on a new wheel
+    public void reset() {
+        clear();
+        now = 0;
+    }
+
+    public long now() {
+        return now;
+    }
+
+    public int activeCount() {
+        return activeCount;
+    }
+
+    // Fires event after delayTicks calls to advance (at least one), returns its handle or NO_TIMER when full
+    public int schedule(long delayTicks, int event, int payload) {
+        if (freeHead == NIL) return NO_TIMER;
+
+        int timer = freeHead;
+        freeHead = next[timer];
+        activeCount++;
+
+        expiry[timer] = now + Math.max(1, Math.min(delayTicks, MAX_DELAY));
+        this.event[timer] = event;
+        this.payload[timer] = payload;
+        insert(timer);
+        return (generation[timer] << INDEX_BITS) | timer;
+    }
+
+    // Returns false when the timer already fired or was cancelled
+    public boolean cancel(int handle) {
+        if (handle == NO_TIMER) return false;
+
+        int timer = handle & INDEX_MASK;
+        if (timer >= next.length || generation[timer] != handle >>> INDEX_BITS || slot[timer] == NIL) {
+            return false;
+        }
+        unlink(timer);
+        release(timer);
+        return true;
+    }
+
+    public void advance(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            advance();
+        }
+    }
+
+    public void advance() {
+        now++;
+
+        // Entering a new lap of a level: bring the next slot of the level above down
+        int index = (int) (now & SLOT_MASK);
+        if (index == 0) {
+            for (int level = 1; level < LEVELS; level++) {
+                int levelIndex = (int) ((now >>> (SLOT_BITS * level)) & SLOT_MASK);
+                cascade(level * SLOTS + levelIndex);
+                if (levelIndex != 0) break;
+            }
+        }
+
+        // Fire one at a time, handlers may schedule or cancel other timers meanwhile
+        int head;
+        while ((head = slotHeads[index]) != NIL) {
+            int firedEvent = event[head];
+            int firedPayload = payload[head];
+            unlink(head);
+            release(head);
+            handler.onTimer(firedEvent, firedPayload);
+        }
+    }
+
+    private void cascade(int slotIndex) {
+        int timer = slotHeads[slotIndex];
+        slotHeads[slotIndex] = NIL;
+        while (timer != NIL) {
+            int following = next[timer];
+            insert(timer);
+            timer = following;
+        }
+    }
+
+    private void insert(int timer) {
+        long expires = expiry[timer];
+        long delay = expires - now;
+
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slotIndex = level * SLOTS + (int) ((expires >>> (SLOT_BITS * level)) & SLOT_MASK);
+
+        // Push at the head of the slot's list
+        int head = slotHeads[slotIndex];
+        next[timer] = head;
+        previous[timer] = NIL;
+        if (head != NIL) previous[head] = timer;
+        slotHeads[slotIndex] = timer;
+        slot[timer] = slotIndex;
+    }
+
+    private void unlink(int timer) {
+        int before = previous[timer];
+        int after = next[timer];
+        if (before != NIL) {
+            next[before] = after;
+        } else {
+            slotHeads[slot[timer]] = after;
+        }
+        if (after != NIL) previous[after] = before;
+        slot[timer] = NIL;
+    }
+
+    private void release(int timer) {
+        generation[timer] = (generation[timer] + 1) & GENERATION_MASK;
+        next[timer] = freeHead;
+        freeHead = timer;
+        activeCount--;
+    }
+}
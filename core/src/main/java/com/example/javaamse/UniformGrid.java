@@ -0,0 +1,148 @@
+package com.example.javaamse;
+
+import java.util.Arrays;
+
+/**
+ * Broad phase: items binned by center into screen cells, pairs visited in neighbouring cells.
+ */
+public final class UniformGrid {
+
+    public interface PairVisitor {
+        void visit(int a, int b);
+    }
+
+    public interface ItemTest {
+        boolean test(int item);
+    }
+
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+
+    // Entries of cell c live in entries[cellStart[c] .. cellStart[c + 1])
+    private final int[] cellStart;
+    private final int[] cellCursor;
+    private final int[] entries;
+    private final int[] itemCell;
+
+    public UniformGrid(float width, float height, float cellSize, int capacity) {
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+
+        int cells = columns * rows;
+        cellStart = new int[cells + 1];
+        cellCursor = new int[cells];
+        entries = new int[capacity];
+        itemCell = new int[capacity];
+    }
+
+    public int columns() {
+        return columns;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public float cellSize() {
+        return cellSize;
+    }
+
+    // Items outside the screen are clamped into the border cells
+    public int columnOf(float x) {
+        int column = (int) (x / cellSize);
+        return column < 0 ? 0 : (column >= columns ? columns - 1 : column);
+    }
+
+    public int rowOf(float y) {
+        int row = (int) (y / cellSize);
+        return row < 0 ? 0 : (row >= rows ? rows - 1 : row);
+    }
+
+    // x and y are top-left corners, the item is binned by its center
+    public void build(float[] x, float[] y, float[] radius, int count) {
+        final int cells = columns * rows;
+        Arrays.fill(cellStart, 0);
+
+        // Count items per cell, shifted by one for the prefix sum
+        for (int i = 0; i < count; i++) {
+            int cell = rowOf(y[i] + radius[i]) * columns + columnOf(x[i] + radius[i]);
+            itemCell[i] = cell;
+            cellStart[cell + 1]++;
+        }
+
+        // Prefix sum turns counts into start offsets
+        for (int c = 1; c <= cells; c++) {
+            cellStart[c] += cellStart[c - 1];
+        }
+
+        // Scatter item indices into their cells
+        System.arraycopy(cellStart, 0, cellCursor, 0, cells);
+        for (int i = 0; i < count; i++) {
+            entries[cellCursor[itemCell[i]]++] = i;
+        }
+    }
+
+    // Visits every candidate pair once, returns how many pairs were visited
+    public int visitPairs(PairVisitor visitor) {
+        int pairs = 0;
+
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                int cell = row * columns + column;
+                int start = cellStart[cell];
+                int end = cellStart[cell + 1];
+                if (start == end) continue;
+
+                // Pairs inside the cell
+                for (int a = start; a < end - 1; a++) {
+                    for (int b = a + 1; b < end; b++) {
+                        visitor.visit(entries[a], entries[b]);
+                        pairs++;
+                    }
+                }
+
+                // Pairs with the forward half of the neighbourhood, so no pair is seen twice
+                pairs += visitCrossPairs(start, end, column + 1, row, visitor);
+                pairs += visitCrossPairs(start, end, column - 1, row + 1, visitor);
+                pairs += visitCrossPairs(start, end, column, row + 1, visitor);
+                pairs += visitCrossPairs(start, end, column + 1, row + 1, visitor);
+            }
+        }
+        return pairs;
+    }
+
+    // True as soon as test accepts an item binned within reach of (x, y), only nearby cells are scanned
+    public boolean anyNear(float x, float y, float reach, ItemTest test) {
+        int firstColumn = columnOf(x - reach);
+        int lastColumn = columnOf(x + reach);
+        int firstRow = rowOf(y - reach);
+        int lastRow = rowOf(y + reach);
+
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                int cell = row * columns + column;
+                for (int e = cellStart[cell]; e < cellStart[cell + 1]; e++) {
+                    if (test.test(entries[e])) return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private int visitCrossPairs(int start, int end, int column, int row, PairVisitor visitor) {
+        if (column < 0 || column >= columns || row >= rows) return 0;
+
+        int cell = row * columns + column;
+        int otherStart = cellStart[cell];
+        int otherEnd = cellStart[cell + 1];
+
+        for (int a = start; a < end; a++) {
+            for (int b = otherStart; b < otherEnd; b++) {
+                visitor.visit(entries[a], entries[b]);
+            }
+        }
+        return (end - start) * (otherEnd - otherStart);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.javaamse;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AsteroidFieldTest {
+
+    @Test
+    public void addFailsOnceCapacityIsReached() {
+        AsteroidField field = new AsteroidField(2);
+
+        assertEquals(0, field.add(0, 0, 1, 1, 10, 0));
+        assertEquals(1, field.add(0, 0, 1, 1, 10, 0));
+        assertEquals(-1, field.add(0, 0, 1, 1, 10, 0));
+        assertEquals(2, field.count());
+    }
+
+    @Test
+    public void removeSwapsLastAsteroidIntoFreedSlot() {
+        AsteroidField field = new AsteroidField(3);
+        field.add(10, 10, 1, 0, 10, 0);
+        field.add(20, 20, 2, 0, 20, 0);
+        field.add(30, 30, 3, 0, 30, 0);
+
+        field.remove(0);
+
+        assertEquals(2, field.count());
+        assertEquals(30, field.x[0], 0.001f);
+        assertEquals(3, field.velocityX[0], 0.001f);
+        assertEquals(30, field.radius[0], 0.001f);
+        assertEquals(20, field.x[1], 0.001f);
+    }
+
+    @Test
+    public void integrateMovesAndWrapsRotation() {
+        AsteroidField field = new AsteroidField(1);
+        field.add(100, 100, 10, -10, 10, -6);
+
+        field.integrate(0.5f);
+
+        assertEquals(105, field.x[0], 0.001f);
+        assertEquals(95, field.y[0], 0.001f);
+        assertEquals(357, field.rotationAngle[0], 0.001f);
+    }
+
+    @Test
+    public void reflectOffWallsClampsAndReversesVelocity() {
+        AsteroidField field = new AsteroidField(1);
+        field.add(195, -4, 5, -5, 10, 0);
+
+        field.reflectOffWalls(200, 200);
+
+        assertEquals(180, field.x[0], 0.001f);
+        assertEquals(0, field.y[0], 0.001f);
+        assertEquals(-5, field.velocityX[0], 0.001f);
+        assertEquals(5, field.velocityY[0], 0.001f);
+    }
+
+    @Test
+    public void resolveContactConservesMomentumAndEnergy() {
+        AsteroidField field = new AsteroidField(2);
+        field.add(0, 0, 4, 1, 60, 0);
+        field.add(80, 30, -2, 0, 30, 0);
+        float massA = 60 * 60;
+        float massB = 30 * 30;
+        float momentumX = massA * 4 + massB * -2;
+        float momentumY = massA * 1;
+        float energy = massA * (16 + 1) + massB * 4;
+
+        field.resolveContact(0, 1);
+
+        assertEquals(momentumX, massA * field.velocityX[0] + massB * field.velocityX[1], 0.5f);
+        assertEquals(momentumY, massA * field.velocityY[0] + massB * field.velocityY[1], 0.5f);
+        float energyAfter = massA * (field.velocityX[0] * field.velocityX[0] + field.velocityY[0] * field.velocityY[0])
+                + massB * (field.velocityX[1] * field.velocityX[1] + field.velocityY[1] * field.velocityY[1]);
+        assertEquals(energy, energyAfter, 1f);
+    }
+
+    @Test
+    public void resolveContactSeparatesByPenetrationDepth() {
+        AsteroidField field = new AsteroidField(2);
+        field.add(0, 0, 0, 0, 60, 0);
+        field.add(60, 0, 0, 0, 30, 0);
+
+        field.resolveContact(0, 1);
+
+        float dx = (field.x[1] + 30) - (field.x[0] + 60);
+        float dy = (field.y[1] + 30) - (field.y[0] + 60);
+        float reach = field.collisionRadius[0] + field.collisionRadius[1];
+        assertEquals(reach, (float) Math.sqrt(dx * dx + dy * dy), 0.01f);
+
+        // The heavier rock moves less
+        assertTrue(Math.abs(field.x[0]) < Math.abs(field.x[1] - 60));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.javaamse;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class CollisionKernelTest {
+
+    @Test
+    public void effectiveRadiusAppliesThresholdOnce() {
+        assertEquals(54f, CollisionKernel.effectiveRadius(120), 0.001f);
+    }
+
+    @Test
+    public void overlapsMatchesSqrtBasedCheck() {
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            float size1 = 40 + random.nextFloat() * 100;
+            float size2 = 40 + random.nextFloat() * 100;
+            float x1 = random.nextFloat() * 400;
+            float y1 = random.nextFloat() * 400;
+            float x2 = random.nextFloat() * 400;
+            float y2 = random.nextFloat() * 400;
+
+            // Previous formulation: sqrt distance against the thresholded radius sum
+            float dx = (x1 + size1 / 2) - (x2 + size2 / 2);
+            float dy = (y1 + size1 / 2) - (y2 + size2 / 2);
+            float collisionDistance = (size1 / 2 + size2 / 2) * (1 - CollisionKernel.COLLISION_THRESHOLD * 0.5f);
+            boolean expected = Math.sqrt(dx * dx + dy * dy) < collisionDistance;
+
+            boolean actual = CollisionKernel.overlaps(
+                    x1 + size1 / 2, y1 + size1 / 2, CollisionKernel.effectiveRadius(size1),
+                    x2 + size2 / 2, y2 + size2 / 2, CollisionKernel.effectiveRadius(size2));
+
+            assertEquals(expected, actual);
+        }
+    }
+
+    @Test
+    public void touchingCirclesDoNotOverlap() {
+        assertFalse(CollisionKernel.overlaps(0, 0, 10, 20, 0, 10));
+        assertTrue(CollisionKernel.overlaps(0, 0, 10, 19.9f, 0, 10));
+    }
+
+    @Test
+    public void timeOfImpactFindsContactMidStep() {
+        // a sits still, b crosses it completely within the step
+        float t = CollisionKernel.timeOfImpact(0, 0, 0, 0, -100, 0, 200, 0, 20);
+
+        assertEquals(0.4f, t, 0.0001f);
+    }
+
+    @Test
+    public void timeOfImpactIgnoresMissesAndSeparatingCircles() {
+        assertEquals(CollisionKernel.NO_IMPACT, CollisionKernel.timeOfImpact(0, 0, 0, 0, -100, 50, 200, 0, 20), 0f);
+        assertEquals(CollisionKernel.NO_IMPACT, CollisionKernel.timeOfImpact(0, 0, 0, 0, 30, 0, 50, 0, 20), 0f);
+        assertEquals(CollisionKernel.NO_IMPACT, CollisionKernel.timeOfImpact(0, 0, 0, 0, -100, 0, 50, 0, 20), 0f);
+    }
+
+    @Test
+    public void timeOfImpactIsZeroWhenAlreadyOverlapping() {
+        assertEquals(0f, CollisionKernel.timeOfImpact(0, 0, 5, 0, 10, 0, 5, 0, 20), 0f);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.javaamse;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EffectSystemTest {
+
+    @Test
+    public void popupFloatsUpAndFadesOut() {
+        EffectSystem effects = new EffectSystem(4);
+        effects.add(EffectSystem.SCORE_POPUP, 100, 200, 20);
+
+        effects.update(EffectSystem.SCORE_POPUP_DURATION / 2f);
+
+        assertEquals(0.5f, effects.alpha[0], 0.001f);
+        assertEquals(-EffectSystem.SCORE_POPUP_RISE / 2, effects.offsetY[0], 0.001f);
+        assertEquals(20, effects.value[0]);
+    }
+
+    @Test
+    public void finishedEffectsAreRemovedWithoutDisturbingOthers() {
+        EffectSystem effects = new EffectSystem(4);
+        effects.add(EffectSystem.EXPLOSION, 0, 0, 0);
+        effects.add(EffectSystem.SCORE_POPUP, 50, 60, 20);
+
+        effects.update(EffectSystem.EXPLOSION_DURATION);
+
+        assertEquals(1, effects.count());
+        assertEquals(EffectSystem.SCORE_POPUP, effects.type[0]);
+        assertEquals(50, effects.x[0], 0.001f);
+    }
+
+    @Test
+    public void effectsAreDroppedWhenFull() {
+        EffectSystem effects = new EffectSystem(1);
+
+        assertEquals(0, effects.add(EffectSystem.EXPLOSION, 0, 0, 0));
+        assertEquals(-1, effects.add(EffectSystem.EXPLOSION, 0, 0, 0));
+    }
+
+    @Test
+    public void tokenPulseGoesBackAndForth() {
+        assertEquals(0.8f, EffectSystem.pulseScale(0), 0.001f);
+        assertEquals(1.2f, EffectSystem.pulseScale(EffectSystem.TOKEN_PULSE_DURATION), 0.001f);
+        assertEquals(0.8f, EffectSystem.pulseScale(2 * EffectSystem.TOKEN_PULSE_DURATION), 0.001f);
+    }
+}
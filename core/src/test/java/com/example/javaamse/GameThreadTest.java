@@ -0,0 +1,108 @@
+package com.example.javaamse;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.*;
+
+public class GameThreadTest {
+
+    private static final long STEP_MILLIS = 2;
+    private static final long STEP_NANOS = STEP_MILLIS * 1_000_000L;
+    private static final long SETTLE_MILLIS = 50; // Real time for the thread to see a clock change
+
+    private final AtomicInteger steps = new AtomicInteger();
+    private final SnapshotBuffer<GameSnapshot> snapshots = new SnapshotBuffer<>(() -> new GameSnapshot(1, 1, 1));
+
+    private final GameThread.Simulation simulation = new GameThread.Simulation() {
+        @Override
+        public boolean step(float deltaSeconds) {
+            steps.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public void writeSnapshot(GameSnapshot out) {
+            out.tick = steps.get();
+        }
+    };
+
+    @Test
+    public void pausedThreadRunsNoTicksAndDoesNotCatchUp() throws InterruptedException {
+        // The game clock only moves when the test says so, tick counts are exact
+        AtomicLong nanos = new AtomicLong();
+        GameThread thread = new GameThread(simulation, snapshots, STEP_MILLIS, nanos::get);
+        thread.start();
+        Thread.sleep(SETTLE_MILLIS);
+        nanos.addAndGet(3 * STEP_NANOS);
+        Thread.sleep(SETTLE_MILLIS);
+        assertEquals(3, steps.get());
+
+        thread.setPaused(true);
+        Thread.sleep(SETTLE_MILLIS);
+        nanos.addAndGet(1_000_000_000L);
+        Thread.sleep(SETTLE_MILLIS);
+        assertEquals(3, steps.get());
+
+        // The second spent paused is not replayed, not even as a capped burst
+        thread.setPaused(false);
+        Thread.sleep(SETTLE_MILLIS);
+        assertEquals(3, steps.get());
+
+        // Play goes on from the resume, tick for tick
+        nanos.addAndGet(2 * STEP_NANOS);
+        Thread.sleep(SETTLE_MILLIS);
+        assertEquals(5, steps.get());
+
+        thread.shutdown();
+        thread.join(1000);
+        assertFalse(thread.isAlive());
+    }
+
+    @Test
+    public void shutdownStopsAPausedThread() throws InterruptedException {
+        GameThread thread = new GameThread(simulation, snapshots, 2);
+        thread.start();
+        thread.setPaused(true);
+
+        thread.shutdown();
+        thread.join(1000);
+        assertFalse(thread.isAlive());
+    }
+
+    @Test
+    public void onStartRunsOnTheGameThreadBeforeTheFirstTick() throws InterruptedException {
+        GameThread thread = new GameThread(simulation, snapshots, 2);
+        Thread[] ranOn = new Thread[1];
+        int[] stepsBefore = {-1};
+        thread.setOnStart(() -> {
+            ranOn[0] = Thread.currentThread();
+            stepsBefore[0] = steps.get();
+        });
+
+        thread.start();
+        Thread.sleep(20);
+        thread.shutdown();
+        thread.join(1000);
+
+        assertSame(thread, ranOn[0]);
+        assertEquals(0, stepsBefore[0]);
+    }
+
+    @Test
+    public void onExitRunsOnTheGameThreadAfterShutdown() throws InterruptedException {
+        GameThread thread = new GameThread(simulation, snapshots, 2);
+        Thread[] ranOn = new Thread[1];
+        thread.setOnExit(() -> ranOn[0] = Thread.currentThread());
+
+        thread.start();
+        Thread.sleep(20);
+        assertNull(ranOn[0]);
+        thread.shutdown();
+        thread.join(1000);
+
+        assertSame(thread, ranOn[0]);
+    }
+}
@@ -0,0 +1,396 @@
+package com.example.javaamse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+/**
+ * Plain JVM tests for the simulation, no Android framework involved.
+ */
+public class GameWorldTest {
+
+    private static final int SCREEN_WIDTH = 1080;
+    private static final int SCREEN_HEIGHT = 1920;
+    private static final float SHIP_SIZE = 70;
+    private static final float TOKEN_SIZE = 50;
+    private static final float DT = GameWorld.TICK_SECONDS;
+    private static final long SEED = 42;
+
+    private int tokensCollected;
+    private boolean shipDestroyed;
+    private boolean gameOverReported;
+    private GameWorld world;
+
+    @Before
+    public void setUp() {
+        tokensCollected = 0;
+        shipDestroyed = false;
+        gameOverReported = false;
+        world = createWorld(2);
+    }
+
+    private GameWorld createWorld(int asteroidCount) {
+        GameWorld world = createWorld(asteroidCount, false);
+
+        // Park the ship in a corner and keep the asteroids well apart from it and each other
+        world.setShipPosition(0, 0);
+        for (int i = 0; i < asteroidCount; i++) {
+            world.setAsteroid(i, 300 + i * 300, 900, 0, 0);
+        }
+        return world;
+    }
+
+    private GameWorld createWorld(int asteroidCount, boolean endlessMode) {
+        return new GameWorld(SCREEN_WIDTH, SCREEN_HEIGHT, asteroidCount, 1.0f, 10.0f, false, endlessMode,
+                SEED, SHIP_SIZE, TOKEN_SIZE, new GameWorld.Listener() {
+                    @Override
+                    public void onTokenCollected(float x, float y, int value) {
+                        tokensCollected++;
+                    }
+
+                    @Override
+                    public void onShipDestroyed(float x, float y, int score) {
+                        shipDestroyed = true;
+                    }
+
+                    @Override
+                    public void onGameOver(int score) {
+                        gameOverReported = true;
+                    }
+                });
+    }
+
+    @Test
+    public void asteroidMovesByItsVelocityEachTick() {
+        world.setAsteroid(0, 300, 900, 312.5f, -187.5f);
+
+        world.step(DT);
+
+        assertEquals(305, world.getAsteroidX(0), 0.001f);
+        assertEquals(897, world.getAsteroidY(0), 0.001f);
+    }
+
+    @Test
+    public void asteroidReflectsOffWalls() {
+        world.setAsteroid(0, 2, 900, -625, 0);
+        world.setAsteroid(1, 600, SCREEN_HEIGHT - GameWorld.ASTEROID_SIZE - 2, 0, 625);
+
+        world.step(DT);
+
+        assertEquals(0, world.getAsteroidX(0), 0.001f);
+        assertTrue(world.getAsteroidVelocityX(0) > 0);
+        assertEquals(SCREEN_HEIGHT - GameWorld.ASTEROID_SIZE, world.getAsteroidY(1), 0.001f);
+        assertTrue(world.getAsteroidVelocityY(1) < 0);
+    }
+
+    @Test
+    public void headOnAsteroidsOfEqualSizeExchangeVelocities() {
+        world.setAsteroid(0, 400, 900, 625, 0);
+        world.setAsteroid(1, 490, 900, -625, 0);
+
+        world.step(DT);
+
+        assertEquals(-625, world.getAsteroidVelocityX(0), 0.01f);
+        assertEquals(625, world.getAsteroidVelocityX(1), 0.01f);
+    }
+
+    @Test
+    public void asteroidContactResolvesInASingleTick() {
+        world.setAsteroid(0, 400, 900, 625, 0);
+        world.setAsteroid(1, 450, 900, -625, 0);
+
+        world.step(DT);
+
+        // Pushed apart to touching distance, nothing left to resolve on the next tick
+        float reach = 2 * CollisionKernel.effectiveRadius(GameWorld.ASTEROID_SIZE);
+        assertEquals(reach, world.getAsteroidX(1) - world.getAsteroidX(0), 0.01f);
+    }
+
+    @Test
+    public void shipIgnoresHitsWhileInvulnerable() {
+        world.setAsteroid(0, 0, 0, 0, 0);
+
+        assertTrue(world.isInvulnerable());
+        assertTrue(world.step(DT));
+        assertFalse(shipDestroyed);
+    }
+
+    private void runPastInvulnerability() {
+        int invulnerableTicks = GameWorld.INVULNERABILITY_DURATION / GameWorld.TICK_MILLIS + 1;
+        for (int i = 0; i < invulnerableTicks; i++) {
+            assertTrue(world.step(DT));
+        }
+        assertFalse(world.isInvulnerable());
+    }
+
+    @Test
+    public void asteroidHitEndsTheGameOnceInvulnerabilityIsOver() {
+        runPastInvulnerability();
+
+        world.setAsteroid(0, 10, 10, 0, 0);
+
+        world.step(DT);
+        assertTrue(world.isGameOver());
+        assertTrue(shipDestroyed);
+    }
+
+    @Test
+    public void simulationStopsOnceTheExplosionIsOver() {
+        runPastInvulnerability();
+        world.setAsteroid(0, 10, 10, 0, 0);
+        world.step(DT);
+        float asteroidX = world.getAsteroidX(1);
+
+        // The explosion keeps playing while the world stays frozen
+        int explosionTicks = EffectSystem.EXPLOSION_DURATION / GameWorld.TICK_MILLIS;
+        for (int i = 0; i < explosionTicks; i++) {
+            assertTrue(world.step(DT));
+        }
+        assertFalse(gameOverReported);
+        assertFalse(world.step(DT));
+        assertTrue(gameOverReported);
+        assertEquals(0, world.getEffectCount());
+        assertEquals(asteroidX, world.getAsteroidX(1), 0.001f);
+    }
+
+    @Test
+    public void fastAsteroidCannotTunnelThroughTheShip() {
+        runPastInvulnerability();
+        world.setShipPosition(500, 0);
+
+        // Starts left of the ship and ends right of it, never overlapping at a tick boundary
+        world.setAsteroid(0, 300, 0, 25000, 0);
+
+        world.step(DT);
+        assertTrue(shipDestroyed);
+    }
+
+    @Test
+    public void fastAsteroidsCannotTunnelThroughEachOther() {
+        world.setAsteroid(0, 300, 900, 9375, 0);
+        world.setAsteroid(1, 560, 900, -9375, 0);
+
+        world.step(DT);
+
+        // They bounced instead of swapping sides
+        assertTrue(world.getAsteroidX(0) < world.getAsteroidX(1));
+        assertTrue(world.getAsteroidVelocityX(0) < 0);
+        assertTrue(world.getAsteroidVelocityX(1) > 0);
+    }
+
+    @Test
+    public void movementDoesNotDependOnTheTickLength() {
+        GameWorld other = createWorld(2);
+        world.setAsteroid(0, 300, 900, 300, 150);
+        other.setAsteroid(0, 300, 900, 300, 150);
+        world.setJoystick(true, 1, 1);
+        other.setJoystick(true, 1, 1);
+
+        // One 32 ms tick against two 16 ms ticks
+        world.step(2 * DT);
+        other.step(DT);
+        other.step(DT);
+
+        assertEquals(other.getAsteroidX(0), world.getAsteroidX(0), 0.01f);
+        assertEquals(other.getAsteroidY(0), world.getAsteroidY(0), 0.01f);
+        assertEquals(other.getShipX(), world.getShipX(), 0.01f);
+        assertEquals(other.getShipY(), world.getShipY(), 0.01f);
+    }
+
+    @Test
+    public void longTicksAreCapped() {
+        world.setAsteroid(0, 300, 900, 1000, 0);
+
+        world.step(1f);
+
+        assertEquals(300 + 1000 * GameWorld.MAX_TICK_MILLIS / 1000f, world.getAsteroidX(0), 0.01f);
+    }
+
+    @Test
+    public void initialAsteroidsSpawnApartAndAwayFromTheShip() {
+        GameWorld crowded = createWorld(6, false);
+
+        for (int i = 0; i < crowded.getAsteroidCount(); i++) {
+            float shipDistance = (float) Math.sqrt(CollisionKernel.distanceSquared(
+                    crowded.getAsteroidX(i), crowded.getAsteroidY(i), crowded.getShipX(), crowded.getShipY()));
+            assertTrue(shipDistance > 200);
+            for (int j = i + 1; j < crowded.getAsteroidCount(); j++) {
+                float distanceSquared = CollisionKernel.distanceSquared(crowded.getAsteroidX(i), crowded.getAsteroidY(i),
+                        crowded.getAsteroidX(j), crowded.getAsteroidY(j));
+                assertTrue(distanceSquared >= 4 * GameWorld.ASTEROID_SIZE * GameWorld.ASTEROID_SIZE);
+            }
+        }
+    }
+
+    @Test
+    public void endlessModeSplitsAsteroidsAndSpawnsWaves() {
+        GameWorld endless = createWorld(2, true);
+        endless.setShipPosition(0, 0);
+        endless.setAsteroid(0, 300, 900, 0, 0);
+        endless.setAsteroid(1, 700, 1400, 0, 0);
+        assertEquals(GameWorld.MAX_ENDLESS_ASTEROIDS, endless.getAsteroidCapacity());
+
+        int splitTicks = GameWorld.SPLIT_INTERVAL / GameWorld.TICK_MILLIS + 1;
+        for (int i = 0; i < splitTicks; i++) {
+            endless.step(DT);
+        }
+
+        // One rock became two smaller ones
+        assertEquals(3, endless.getAsteroidCount());
+        assertEquals(0.7f * GameWorld.ASTEROID_SIZE / 2, endless.getAsteroidRadius(2), 0.001f);
+
+        // Second split at 8 s, then the first wave brings three full-size rocks
+        int waveTicks = GameWorld.WAVE_INTERVAL / GameWorld.TICK_MILLIS + 1;
+        for (int i = splitTicks; i < waveTicks; i++) {
+            endless.step(DT);
+        }
+        assertFalse(endless.isGameOver());
+        assertEquals(4 + 3, endless.getAsteroidCount());
+    }
+
+    @Test
+    public void scoreGrowsByTenEverySecond() {
+        int ticksPerSecond = 1000 / GameWorld.TICK_MILLIS + 1;
+        for (int i = 0; i < ticksPerSecond; i++) {
+            world.step(DT);
+        }
+
+        assertEquals(10, world.getScore() - GameWorld.TOKEN_POINTS * tokensCollected);
+    }
+
+    @Test
+    public void joystickMovesShipWithinScreenBounds() {
+        world.setJoystick(true, 1, 0);
+        world.step(DT);
+        assertTrue(world.getShipX() > 0);
+
+        world.setJoystick(true, -1, -1);
+        for (int i = 0; i < 100; i++) {
+            world.step(DT);
+        }
+        assertEquals(0, world.getShipX(), 0.001f);
+        assertEquals(0, world.getShipY(), 0.001f);
+    }
+
+    @Test
+    public void tokensSpawnClearOfTheShipAndAsteroids() {
+        for (int spawn = 0; spawn < 20; spawn++) {
+            while (world.getTokenCount() == 0) {
+                world.step(DT);
+            }
+
+            float tokenCenterX = world.getTokenX(0) + TOKEN_SIZE / 2;
+            float tokenCenterY = world.getTokenY(0) + TOKEN_SIZE / 2;
+            assertTrue(CollisionKernel.distanceSquared(tokenCenterX, tokenCenterY,
+                    SHIP_SIZE / 2, SHIP_SIZE / 2) >= GameWorld.TOKEN_SHIP_CLEARANCE * GameWorld.TOKEN_SHIP_CLEARANCE);
+            for (int i = 0; i < world.getAsteroidCount(); i++) {
+                float radius = world.getAsteroidRadius(i);
+                float clearance = radius + GameWorld.TOKEN_ASTEROID_GAP;
+                assertTrue(CollisionKernel.distanceSquared(tokenCenterX, tokenCenterY,
+                        world.getAsteroidX(i) + radius, world.getAsteroidY(i) + radius) >= clearance * clearance);
+            }
+
+            // Collect it and go back to the corner for the next one
+            world.setShipPosition(world.getTokenX(0), world.getTokenY(0));
+            world.step(DT);
+            world.setShipPosition(0, 0);
+        }
+    }
+
+    @Test
+    public void tokenExpiresAfterItsLifetime() {
+        while (world.getTokenCount() == 0) {
+            world.step(DT);
+        }
+
+        // The next spawn attempts are skipped while the token is still alive
+        int lifetimeTicks = GameWorld.TOKEN_LIFETIME / GameWorld.TICK_MILLIS;
+        for (int i = 0; i < lifetimeTicks - 1; i++) {
+            world.step(DT);
+        }
+        assertEquals(1, world.getTokenCount());
+        world.step(DT);
+        assertEquals(0, world.getTokenCount());
+    }
+
+    @Test
+    public void tokenSpawnsAfterSpawnInterval() {
+        assertEquals(0, world.getTokenCount());
+
+        int ticks = GameWorld.TOKEN_SPAWN_INTERVAL / GameWorld.TICK_MILLIS + 1;
+        for (int i = 0; i < ticks; i++) {
+            world.step(DT);
+        }
+
+        assertEquals(1, world.getTokenCount());
+    }
+
+    @Test
+    public void steadyStateTokenSpawnsReuseThePool() {
+        runPastInvulnerability();
+        // Long enough for the JIT to settle, compilation allocates a little on the way
+        collectTokensFor(10000);
+
+        long allocatedBefore = allocatedBytes();
+        int collectedBefore = tokensCollected;
+        collectTokensFor(2000);
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        // Tokens kept spawning and being collected without new tokens or garbage
+        assertTrue(tokensCollected - collectedBefore > 10);
+        assertEquals(GameWorld.MAX_POINT_TOKENS, world.getTokenPoolCreatedCount());
+        assertTrue("allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    private void collectTokensFor(int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            if (world.getTokenCount() > 0) {
+                world.setShipPosition(world.getTokenX(0), world.getTokenY(0));
+            }
+            world.step(DT);
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    @Test
+    public void snapshotMirrorsWorldState() {
+        world.setAsteroid(1, 500, 700, 0, 0);
+        GameSnapshot snapshot = world.createSnapshot();
+
+        world.writeSnapshot(snapshot);
+
+        assertEquals(2, snapshot.asteroidCount);
+        assertEquals(500, snapshot.asteroidX[1], 0.001f);
+        assertEquals(700, snapshot.asteroidY[1], 0.001f);
+        assertEquals(world.getShipX(), snapshot.shipX, 0.001f);
+    }
+
+    @Test
+    public void resetReplaysLikeANewWorld() {
+        GameWorld fresh = createWorld(3, true);
+        GameWorld played = createWorld(3, true);
+        for (int i = 0; i < 1500 && played.step(DT); i++) {
+            played.setJoystick(true, 0.5f, -0.25f);
+        }
+        played.setJoystick(false, 0, 0);
+
+        played.reset(SEED);
+
+        assertEquals(0, played.getScore());
+        assertEquals(0, played.getTokenCount());
+        assertEquals(fresh.stateChecksum(), played.stateChecksum());
+        for (int i = 0; i < 1500; i++) {
+            boolean running = fresh.step(DT);
+            assertEquals(running, played.step(DT));
+            assertEquals("tick " + i, fresh.stateChecksum(), played.stateChecksum());
+            if (!running) break;
+        }
+    }
+}
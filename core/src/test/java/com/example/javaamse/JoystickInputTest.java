@@ -0,0 +1,61 @@
+package com.example.javaamse;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class JoystickInputTest {
+
+    private final JoystickInput joystick = new JoystickInput();
+
+    @Test
+    public void tickSeesTheMeanOfItsSamples() {
+        joystick.addSample(0f, 0f);
+        joystick.addSample(0.5f, -1f);
+        joystick.addSample(1f, 0.25f);
+        joystick.publish();
+
+        joystick.consume();
+
+        assertTrue(joystick.isPressed());
+        assertEquals(0.5f, joystick.getX(), 1e-6f);
+        assertEquals(-0.25f, joystick.getY(), 1e-6f);
+    }
+
+    @Test
+    public void heldStickKeepsItsLastOffset() {
+        joystick.addSample(0.25f, 0.75f);
+        joystick.publish();
+        joystick.consume();
+        joystick.consume();
+
+        assertTrue(joystick.isPressed());
+        assertEquals(0.25f, joystick.getX(), 0f);
+        assertEquals(0.75f, joystick.getY(), 0f);
+    }
+
+    @Test
+    public void tapBetweenTwoTicksStillCounts() {
+        joystick.addSample(1f, 0f);
+        joystick.addSample(0.5f, 0f);
+        joystick.release();
+        joystick.publish();
+
+        joystick.consume();
+        assertTrue(joystick.isPressed());
+        assertEquals(0.75f, joystick.getX(), 1e-6f);
+
+        joystick.consume();
+        assertFalse(joystick.isPressed());
+        assertEquals(0f, joystick.getX(), 0f);
+    }
+
+    @Test
+    public void unpublishedSamplesAreNotSeen() {
+        joystick.addSample(1f, 1f);
+
+        joystick.consume();
+
+        assertFalse(joystick.isPressed());
+    }
+}
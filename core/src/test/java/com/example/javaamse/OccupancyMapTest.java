@@ -0,0 +1,47 @@
+package com.example.javaamse;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class OccupancyMapTest {
+
+    @Test
+    public void everyPointOfAFreeCellIsOutsideTheCircles() {
+        OccupancyMap map = new OccupancyMap(0, 0, 400, 300, 20);
+        map.markCircle(100, 100, 75);
+        map.markCircle(390, 10, 40);
+
+        for (int cell = 0; cell < map.cellCount(); cell++) {
+            if (map.isBlocked(cell)) continue;
+            // Corners are the worst case for a cell outside a circle
+            for (float x : new float[] {map.cellLeft(cell), map.cellRight(cell)}) {
+                for (float y : new float[] {map.cellTop(cell), map.cellBottom(cell)}) {
+                    assertTrue(CollisionKernel.distanceSquared(x, y, 100, 100) >= 75 * 75);
+                    assertTrue(CollisionKernel.distanceSquared(x, y, 390, 10) >= 40 * 40);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void nthFreeCellWalksFreeCellsInOrder() {
+        OccupancyMap map = new OccupancyMap(0, 0, 200, 100, 10);
+        map.markCircle(0, 0, 5);
+
+        assertEquals(map.cellCount() - 1, map.freeCount());
+        assertEquals(1, map.nthFreeCell(0));
+        assertEquals(map.cellCount() - 1, map.nthFreeCell(map.freeCount() - 1));
+        assertEquals(-1, map.nthFreeCell(map.freeCount()));
+    }
+
+    @Test
+    public void fullyCoveredMapHasNoFreeCell() {
+        OccupancyMap map = new OccupancyMap(0, 0, 100, 100, 10);
+        map.markCircle(50, 50, 200);
+
+        assertEquals(0, map.freeCount());
+        map.clear();
+        assertEquals(map.cellCount(), map.freeCount());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.javaamse;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+
+public class PerfMetricsTest {
+
+    private static final long MS = 1_000_000L;
+
+    private final PerfMetrics metrics = new PerfMetrics();
+    private final GameSnapshot snapshot = new GameSnapshot(4, 1, 1);
+
+    @Test
+    public void reportsFramePercentiles() {
+        // 19 smooth frames and one 50 ms hitch, then a frame that closes the interval
+        long time = 0;
+        metrics.onFrame(time, snapshot);
+        for (int i = 0; i < 19; i++) {
+            time += 16 * MS;
+            assertFalse(metrics.onFrame(time, snapshot));
+        }
+        time += 50 * MS;
+        metrics.onFrame(time, snapshot);
+        time += 200 * MS;
+        assertTrue(metrics.onFrame(time, snapshot));
+        metrics.report(3);
+
+        assertEquals(1, metrics.rowCount());
+        assertEquals(16, metrics.latest(PerfMetrics.FRAME_P50_MS), 0.001f);
+        assertEquals(50, metrics.latest(PerfMetrics.FRAME_P95_MS), 0.001f);
+        assertEquals(200, metrics.latest(PerfMetrics.FRAME_MAX_MS), 0.001f);
+        assertEquals(3, metrics.latest(PerfMetrics.GC_COUNT), 0f);
+    }
+
+    @Test
+    public void pauseIsNotCountedAsAFrame() {
+        long time = 0;
+        for (int i = 0; i < 10; i++) {
+            metrics.onFrame(time, snapshot);
+            time += 16 * MS;
+        }
+
+        // Three seconds paused, then play goes on
+        metrics.resetFrameClock();
+        time += 3000 * MS;
+        for (int i = 0; i < 10; i++) {
+            metrics.onFrame(time, snapshot);
+            time += 16 * MS;
+        }
+        metrics.report(0);
+
+        assertEquals(16, metrics.latest(PerfMetrics.FRAME_MAX_MS), 0.001f);
+        assertEquals(20, metrics.latest(PerfMetrics.FRAMES), 0f);
+    }
+
+    @Test
+    public void countsEachSnapshotsTickOnce() {
+        // The 2 ms tick stays on screen for three frames
+        showSnapshot(1, 2, 0);
+        showSnapshot(1, 2, 16);
+        showSnapshot(1, 2, 32);
+        showSnapshot(2, 8, 48);
+        snapshot.tickOverruns = 1;
+        snapshot.asteroidCount = 4;
+        showSnapshot(3, 9, 64);
+        metrics.report(0);
+
+        // Counted per frame, the 2 ms tick would have been the median
+        assertEquals(8, metrics.latest(PerfMetrics.TICK_P50_MS), 0.001f);
+        assertEquals(9, metrics.latest(PerfMetrics.TICK_MAX_MS), 0.001f);
+        assertEquals(1, metrics.latest(PerfMetrics.TICK_OVERRUNS), 0f);
+        assertEquals(4, metrics.latest(PerfMetrics.ASTEROIDS), 0f);
+    }
+
+    private void showSnapshot(long tick, long tickMs, long frameMs) {
+        snapshot.tick = tick;
+        snapshot.tickNanos = tickMs * MS;
+        metrics.onFrame(frameMs * MS, snapshot);
+    }
+
+    @Test
+    public void keepsTheLatestRowsForTheCsv() throws IOException {
+        for (int i = 0; i <= PerfMetrics.MAX_ROWS; i++) {
+            metrics.onFrame(i * PerfMetrics.REPORT_INTERVAL_MS * MS, snapshot);
+            metrics.report(i);
+        }
+        assertEquals(PerfMetrics.MAX_ROWS, metrics.rowCount());
+        assertEquals(1, metrics.value(0, PerfMetrics.GC_COUNT), 0f);
+
+        StringWriter csv = new StringWriter();
+        metrics.writeCsv(csv);
+        String[] lines = csv.toString().split("\n");
+        assertEquals(PerfMetrics.MAX_ROWS + 1, lines.length);
+        assertTrue(lines[0].startsWith("elapsed_ms,frames,frame_p50_ms"));
+        assertEquals(16, lines[1].split(",").length);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.javaamse;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class PoolTest {
+
+    @Test
+    public void releasedItemsAreReused() {
+        Pool<int[]> pool = new Pool<>(() -> new int[1], 2);
+        assertEquals(2, pool.createdCount());
+
+        int[] first = pool.acquire();
+        pool.release(first);
+
+        assertSame(first, pool.acquire());
+        assertEquals(2, pool.createdCount());
+    }
+
+    @Test
+    public void emptyPoolFallsBackToTheFactory() {
+        Pool<int[]> pool = new Pool<>(() -> new int[1], 1);
+
+        int[] first = pool.acquire();
+        int[] second = pool.acquire();
+
+        assertNotSame(first, second);
+        assertEquals(2, pool.createdCount());
+
+        // Only one fits back into the pool
+        pool.release(first);
+        pool.release(second);
+        assertEquals(1, pool.freeCount());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.javaamse;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+/**
+ * Record a run with scripted input, then re-simulate it headless from the replay alone.
+ */
+public class ReplayTest {
+
+    private static final int SCREEN_WIDTH = 1080;
+    private static final int SCREEN_HEIGHT = 1920;
+    private static final float SHIP_SIZE = 70;
+    private static final float TOKEN_SIZE = 50;
+
+    private static final GameWorld.Listener NO_LISTENER = new GameWorld.Listener() {
+        @Override
+        public void onTokenCollected(float x, float y, int value) {
+        }
+
+        @Override
+        public void onShipDestroyed(float x, float y, int score) {
+        }
+
+        @Override
+        public void onGameOver(int score) {
+        }
+    };
+
+    private static GameWorld createWorld(long seed) {
+        return new GameWorld(SCREEN_WIDTH, SCREEN_HEIGHT, 6, 1.0f, 10.0f, true, true,
+                seed, SHIP_SIZE, TOKEN_SIZE, NO_LISTENER);
+    }
+
+    // Steers the ship around with both inputs and a few uneven tick lengths, like a real session.
+    // A steady run holds the joystick in one direction instead.
+    private static byte[] record(long seed, int ticks, boolean steady) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GameWorld world = createWorld(seed);
+        ReplayRecorder recorder = new ReplayRecorder(bytes, SCREEN_WIDTH, SCREEN_HEIGHT, 6, 1.0f, 10.0f,
+                true, true, seed, SHIP_SIZE, TOKEN_SIZE);
+        world.setInputRecorder(recorder);
+
+        for (int i = 0; i < ticks; i++) {
+            float angle = steady ? 0f : i * 0.01f;
+            world.setJoystick(i % 300 < 150, (float) StrictMath.cos(angle), (float) StrictMath.sin(angle));
+            world.setTilt(steady ? 0 : i % 7 - 3, steady ? 0 : i % 5 - 2);
+            world.step(i % 50 == 0 ? 2 * GameWorld.TICK_SECONDS : GameWorld.TICK_SECONDS);
+        }
+        recorder.finish(world);
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void sameSeedGivesTheSameWorld() {
+        assertEquals(createWorld(7).stateChecksum(), createWorld(7).stateChecksum());
+        assertNotEquals(createWorld(7).stateChecksum(), createWorld(8).stateChecksum());
+    }
+
+    @Test
+    public void replayReSimulatesTheRecordedRun() throws IOException {
+        byte[] replay = record(1234, 3000, false);
+
+        ReplayPlayer.Result result = ReplayPlayer.play(new ByteArrayInputStream(replay));
+
+        assertEquals(3000, result.ticks);
+        assertTrue(result.matches());
+    }
+
+    @Test
+    public void unchangedInputIsNotRewrittenEveryTick() throws IOException {
+        // A flag byte per tick plus the occasional step length change, far below a full record per tick
+        byte[] replay = record(99, 3000, true);
+        assertTrue("replay is " + replay.length + " bytes", replay.length < 3000 * 4);
+    }
+
+    @Test
+    public void alteredReplayNoLongerMatches() throws IOException {
+        byte[] replay = record(1234, 3000, false);
+
+        // Stretch the first recorded step length, it follows the 43 byte header and the first flag byte
+        replay[45] ^= 0x10;
+
+        assertFalse(ReplayPlayer.play(new ByteArrayInputStream(replay)).matches());
+    }
+
+    @Test
+    public void rejectsOtherFiles() {
+        try {
+            ReplayPlayer.play(new ByteArrayInputStream(new byte[]{1, 2, 3, 4, 5}));
+            fail();
+        } catch (IOException expected) {
+            // Not a replay
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.javaamse;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.*;
+
+public class ScoreStoreTest {
+
+    // Runs every task at once, in order, on the test thread
+    private static final Executor DIRECT = Runnable::run;
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("scores", ".log");
+        file.delete();
+    }
+
+    @After
+    public void tearDown() {
+        file.delete();
+        for (File old : keptAside()) {
+            old.delete();
+        }
+    }
+
+    private File[] keptAside() {
+        return file.getParentFile().listFiles((directory, name) -> name.startsWith(file.getName() + "."));
+    }
+
+    private ScoreStore open() {
+        return new ScoreStore(() -> file, DIRECT, null);
+    }
+
+    private static ScoreStore.Run run(int score, int difficulty) {
+        return new ScoreStore.Run(1000 + score, score * 31L, score, score * 10, difficulty, score / 20);
+    }
+
+    @Test
+    public void runsSurviveAReload() {
+        ScoreStore store = open();
+        store.record(run(120, ScoreStore.NORMAL));
+        store.record(run(40, ScoreStore.HARD));
+
+        ScoreStore reloaded = open();
+
+        assertTrue(reloaded.isLoaded());
+        assertEquals(1, reloaded.getRunCount(ScoreStore.NORMAL));
+        ScoreStore.Run best = reloaded.getTopRuns(ScoreStore.NORMAL)[0];
+        assertEquals(120, best.score);
+        assertEquals(120 * 31L, best.seed);
+        assertEquals(1200, best.durationMs);
+        assertEquals(6, best.tokensCollected);
+        assertEquals(40, reloaded.getBestScore(ScoreStore.HARD));
+        assertEquals(0, reloaded.getBestScore(ScoreStore.EASY));
+    }
+
+    @Test
+    public void topRunsAreSortedAndCapped() {
+        ScoreStore store = open();
+        for (int i = 0; i < 25; i++) {
+            store.record(run((i * 7) % 25 * 10, ScoreStore.EASY));
+        }
+
+        ScoreStore.Run[] top = store.getTopRuns(ScoreStore.EASY);
+
+        assertEquals(25, store.getRunCount(ScoreStore.EASY));
+        assertEquals(ScoreStore.TOP_RUNS, top.length);
+        assertEquals(240, top[0].score);
+        for (int i = 1; i < top.length; i++) {
+            assertTrue(top[i - 1].score >= top[i].score);
+        }
+    }
+
+    @Test
+    public void tornRecordIsDroppedAndLaterRunsStillLoad() throws IOException {
+        open().record(run(100, ScoreStore.NORMAL));
+        try (RandomAccessFile log = new RandomAccessFile(file, "rw")) {
+            log.setLength(log.length() + ScoreStore.RECORD_BYTES / 2); // Killed mid-append
+        }
+
+        open().record(run(60, ScoreStore.NORMAL));
+        ScoreStore reloaded = open();
+
+        assertEquals(ScoreStore.HEADER_BYTES + 2 * ScoreStore.RECORD_BYTES, file.length());
+        assertEquals(2, reloaded.getRunCount(ScoreStore.NORMAL));
+        assertEquals(60, reloaded.getTopRuns(ScoreStore.NORMAL)[1].score);
+    }
+
+    @Test
+    public void newLogStartsWithImportedRuns() {
+        new ScoreStore(() -> file, DIRECT, () -> new ScoreStore.Run[] {run(80, ScoreStore.ENDLESS)});
+
+        // The log exists now, a second import is not asked for
+        ScoreStore reloaded = new ScoreStore(() -> file, DIRECT, () -> {
+            fail("imported twice");
+            return null;
+        });
+
+        assertEquals(80, reloaded.getBestScore(ScoreStore.ENDLESS));
+        assertEquals(1, reloaded.getRunCount(ScoreStore.ENDLESS));
+    }
+
+    @Test
+    public void aScoreboardNeverChangesOnceRead() {
+        ScoreStore store = open();
+        store.record(run(50, ScoreStore.HARD));
+        ScoreStore.Scoreboard before = store.getScoreboard();
+
+        store.record(run(90, ScoreStore.HARD));
+
+        assertEquals(1, before.getRunCount(ScoreStore.HARD));
+        assertEquals(1, before.getTopRuns(ScoreStore.HARD).length);
+        assertEquals(50, before.getBestScore(ScoreStore.HARD));
+        assertEquals(2, store.getScoreboard().getRunCount(ScoreStore.HARD));
+        assertEquals(90, store.getScoreboard().getBestScore(ScoreStore.HARD));
+    }
+
+    @Test
+    public void unknownLogIsKeptAsideNotOverwritten() throws IOException {
+        byte[] future = {0x41, 0x4D, 0x53, 0x43, 2, 1, 2, 3}; // A later VERSION
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(future);
+        }
+
+        ScoreStore store = open();
+        store.record(run(30, ScoreStore.EASY));
+
+        File[] aside = keptAside();
+        assertEquals(1, aside.length);
+        assertArrayEquals(future, Files.readAllBytes(aside[0].toPath()));
+        assertEquals(ScoreStore.HEADER_BYTES + ScoreStore.RECORD_BYTES, file.length());
+        assertEquals(30, open().getBestScore(ScoreStore.EASY));
+    }
+}
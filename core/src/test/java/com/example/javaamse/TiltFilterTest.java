@@ -0,0 +1,64 @@
+package com.example.javaamse;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TiltFilterTest {
+
+    private static final long MS = 1_000_000L;
+    private static final float G = 9.81f;
+
+    @Test
+    public void firstSampleIsTakenAsIs() {
+        TiltFilter filter = new TiltFilter(TiltFilter.LOW_PASS, 0.1f);
+        assertFalse(filter.hasValue());
+
+        filter.onGravity(0, 1f, 2f, G);
+
+        assertTrue(filter.hasValue());
+        assertEquals(1f, filter.getX(), 0f);
+        assertEquals(2f, filter.getY(), 0f);
+    }
+
+    @Test
+    public void lowPassSmoothsAStepWithItsTimeConstant() {
+        TiltFilter filter = new TiltFilter(TiltFilter.LOW_PASS, 0.1f);
+        filter.onGravity(0, 0f, 0f, G);
+
+        // One 100 ms sample moves halfway, and the rate doesn't matter: ten 10 ms samples get close to 1 - 1/e
+        filter.onGravity(100 * MS, 4f, 0f, G);
+        assertEquals(2f, filter.getX(), 1e-4f);
+
+        TiltFilter fast = new TiltFilter(TiltFilter.LOW_PASS, 0.1f);
+        fast.onGravity(0, 0f, 0f, G);
+        for (int i = 1; i <= 10; i++) {
+            fast.onGravity(i * 10 * MS, 4f, 0f, G);
+        }
+        assertEquals(4f * (1f - (float) Math.pow(1 / 1.1, 10)), fast.getX(), 1e-3f);
+    }
+
+    @Test
+    public void complementaryFollowsTheGyroscopeBetweenGravitySamples() {
+        TiltFilter filter = new TiltFilter(TiltFilter.COMPLEMENTARY, 0.5f);
+        filter.onGravity(0, 0f, 0f, G);
+
+        // Rolling at 0.5 rad/s for 100 ms tips gravity by about 0.05 rad towards -x
+        filter.onRotationRate(0, 0f, 0.5f, 0f);
+        for (int i = 1; i <= 10; i++) {
+            filter.onRotationRate(i * 10 * MS, 0f, 0.5f, 0f);
+        }
+        assertEquals(-G * 0.05f, filter.getX(), 0.01f);
+    }
+
+    @Test
+    public void lowPassIgnoresTheGyroscope() {
+        TiltFilter filter = new TiltFilter(TiltFilter.LOW_PASS, 0.5f);
+        filter.onGravity(0, 0f, 0f, G);
+
+        filter.onRotationRate(0, 0f, 0.5f, 0f);
+        filter.onRotationRate(100 * MS, 0f, 0.5f, 0f);
+
+        assertEquals(0f, filter.getX(), 0f);
+    }
+}
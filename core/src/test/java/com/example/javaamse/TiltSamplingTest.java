@@ -0,0 +1,66 @@
+package com.example.javaamse;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TiltSamplingTest {
+
+    private static final long MS = 1_000_000L;
+    private static final int TICK = 16;
+
+    private final TiltSampling sampling = new TiltSampling(TICK);
+
+    @Test
+    public void activeSamplingFollowsTheTickRate() {
+        assertEquals(TiltSampling.ACTIVE, sampling.mode());
+        assertEquals(8000, sampling.samplingPeriodUs());
+        assertEquals(16000, sampling.maxReportLatencyUs());
+    }
+
+    @Test
+    public void stillShipSlowsSamplingDownAndMovingSpeedsItUp() {
+        assertFalse(sampling.update(0, 100, 100, TICK));
+        assertFalse(sampling.update((TiltSampling.IDLE_AFTER_MS - 16) * MS, 100, 100, TICK));
+
+        assertTrue(sampling.update(TiltSampling.IDLE_AFTER_MS * MS, 100, 100, TICK));
+        assertEquals(TiltSampling.IDLE, sampling.mode());
+        assertTrue(sampling.samplingPeriodUs() > 16000);
+        assertTrue(sampling.maxReportLatencyUs() > 16000);
+
+        assertTrue(sampling.update((TiltSampling.IDLE_AFTER_MS + 16) * MS, 104, 100, TICK));
+        assertEquals(TiltSampling.ACTIVE, sampling.mode());
+    }
+
+    @Test
+    public void stoppedSamplingIgnoresFramesUntilResumed() {
+        assertTrue(sampling.stop());
+        assertFalse(sampling.update(0, 100, 100, TICK));
+        assertFalse(sampling.update(16 * MS, 200, 100, TICK));
+        assertEquals(TiltSampling.STOPPED, sampling.mode());
+
+        assertTrue(sampling.resume());
+        assertEquals(TiltSampling.ACTIVE, sampling.mode());
+    }
+
+    @Test
+    public void followsTheLiveTickRate() {
+        assertFalse(sampling.update(0, 100, 100, TICK));
+
+        // The game thread slowed down to 33 ms ticks
+        assertTrue(sampling.update(16 * MS, 104, 100, 33));
+        assertEquals(16500, sampling.samplingPeriodUs());
+        assertEquals(33000, sampling.maxReportLatencyUs());
+    }
+
+    @Test
+    public void idleWakeUpDelayIsBounded() {
+        assertEquals(8 + 16, sampling.wakeUpDelayMs());
+
+        sampling.update(0, 100, 100, TICK);
+        sampling.update(TiltSampling.IDLE_AFTER_MS * MS, 100, 100, TICK);
+
+        assertEquals(TiltSampling.IDLE, sampling.mode());
+        assertEquals(4 * TICK + 100, sampling.wakeUpDelayMs());
+    }
+}
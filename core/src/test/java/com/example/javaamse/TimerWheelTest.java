@@ -0,0 +1,85 @@
+package com.example.javaamse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+
+public class TimerWheelTest {
+
+    private final ArrayList<long[]> fired = new ArrayList<>();
+    private TimerWheel wheel;
+
+    @Before
+    public void setUp() {
+        fired.clear();
+        wheel = new TimerWheel(16, (event, payload) -> fired.add(new long[] {wheel.now(), event, payload}));
+    }
+
+    @Test
+    public void timersFireOnTheirTickAcrossLevels() {
+        long[] delays = {1, 63, 64, 65, 4095, 4096, 4097, 300_000};
+        for (int i = 0; i < delays.length; i++) {
+            wheel.schedule(delays[i], i, 0);
+        }
+
+        wheel.advance(300_000);
+
+        assertEquals(delays.length, fired.size());
+        for (long[] timer : fired) {
+            assertEquals(delays[(int) timer[1]], timer[0]);
+        }
+        assertEquals(0, wheel.activeCount());
+    }
+
+    @Test
+    public void cancelledTimerNeverFires() {
+        int handle = wheel.schedule(100, 1, 0);
+        wheel.schedule(100, 2, 0);
+
+        assertTrue(wheel.cancel(handle));
+        wheel.advance(200);
+
+        assertEquals(1, fired.size());
+        assertEquals(2, fired.get(0)[1]);
+        assertFalse(wheel.cancel(handle));
+    }
+
+    @Test
+    public void staleHandleDoesNotCancelAReusedTimer() {
+        int handle = wheel.schedule(1, 1, 0);
+        wheel.advance();
+
+        // Same slot reused by the next timer
+        wheel.schedule(5, 2, 0);
+
+        assertFalse(wheel.cancel(handle));
+        wheel.advance(5);
+        assertEquals(2, fired.size());
+    }
+
+    @Test
+    public void handlerCanRescheduleFromTheCallback() {
+        TimerWheel[] self = new TimerWheel[1];
+        int[] count = new int[1];
+        self[0] = new TimerWheel(1, (event, payload) -> {
+            count[0]++;
+            self[0].schedule(10, event, payload);
+        });
+        self[0].schedule(10, 0, 0);
+
+        self[0].advance(100);
+
+        assertEquals(10, count[0]);
+    }
+
+    @Test
+    public void scheduleFailsWhenFull() {
+        TimerWheel small = new TimerWheel(1, (event, payload) -> { });
+
+        assertNotEquals(TimerWheel.NO_TIMER, small.schedule(10, 0, 0));
+        assertEquals(TimerWheel.NO_TIMER, small.schedule(10, 0, 0));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.javaamse;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class UniformGridTest {
+
+    private static final float WIDTH = 1080;
+    private static final float HEIGHT = 1920;
+    private static final float RADIUS = 60;
+
+    @Test
+    public void findsEveryOverlappingPairExactlyOnce() {
+        Random random = new Random(42);
+        int count = 500;
+        float[] x = new float[count];
+        float[] y = new float[count];
+        float[] r = new float[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = random.nextFloat() * (WIDTH - 2 * RADIUS);
+            y[i] = random.nextFloat() * (HEIGHT - 2 * RADIUS);
+            r[i] = RADIUS;
+        }
+
+        // Brute-force reference of overlapping pairs
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                float dx = x[i] - x[j];
+                float dy = y[i] - y[j];
+                if (dx * dx + dy * dy < (2 * RADIUS) * (2 * RADIUS)) {
+                    expected.add(key(i, j));
+                }
+            }
+        }
+
+        UniformGrid grid = new UniformGrid(WIDTH, HEIGHT, 2 * RADIUS, count);
+        grid.build(x, y, r, count);
+
+        Set<Long> visited = new HashSet<>();
+        int pairs = grid.visitPairs((a, b) -> assertTrue("pair visited twice", visited.add(key(a, b))));
+
+        assertEquals(visited.size(), pairs);
+        assertTrue(visited.containsAll(expected));
+        assertTrue("broad phase should prune most pairs", pairs < count * (count - 1) / 8);
+    }
+
+    @Test
+    public void anyNearMatchesBruteForce() {
+        Random random = new Random(7);
+        int count = 300;
+        float[] x = new float[count];
+        float[] y = new float[count];
+        float[] r = new float[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = random.nextFloat() * (WIDTH - 2 * RADIUS);
+            y[i] = random.nextFloat() * (HEIGHT - 2 * RADIUS);
+            r[i] = RADIUS;
+        }
+
+        UniformGrid grid = new UniformGrid(WIDTH, HEIGHT, 2 * RADIUS, count);
+        grid.build(x, y, r, count);
+
+        float clearance = 100;
+        for (int query = 0; query < 200; query++) {
+            float qx = random.nextFloat() * WIDTH;
+            float qy = random.nextFloat() * HEIGHT;
+
+            boolean expected = false;
+            for (int i = 0; i < count && !expected; i++) {
+                expected = CollisionKernel.distanceSquared(qx, qy, x[i] + r[i], y[i] + r[i]) < clearance * clearance;
+            }
+            boolean found = grid.anyNear(qx, qy, clearance, item ->
+                    CollisionKernel.distanceSquared(qx, qy, x[item] + r[item], y[item] + r[item]) < clearance * clearance);
+
+            assertEquals(expected, found);
+        }
+    }
+
+    @Test
+    public void clampsItemsOutsideTheScreenIntoBorderCells() {
+        UniformGrid grid = new UniformGrid(WIDTH, HEIGHT, 2 * RADIUS, 2);
+        float[] x = {-50, -10};
+        float[] y = {HEIGHT + 10, HEIGHT - 20};
+        float[] r = {RADIUS, RADIUS};
+
+        grid.build(x, y, r, 2);
+
+        assertEquals(1, grid.visitPairs((a, b) -> { }));
+    }
+
+    private static long key(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+}
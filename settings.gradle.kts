@@ -21,3 +21,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "JavaAMSE"
 include(":app")
+include(":core")
+include(":benchmark")